@@ -0,0 +1,75 @@
+-- =====================================================
+-- Benchmark: busca parcial por cliente antes/depois do
+-- índice trigram (V6).
+--
+-- Uso (banco descartável, já migrado pelo Flyway):
+--   psql -d cqrs_orders_bench -v orders=1000000 -f scripts/benchmark/customer_search.sql
+--
+-- "Antes" usa o predicado antigo LOWER(customer_name) LIKE,
+-- que não consegue usar o índice; "depois" usa ILIKE, que
+-- usa os índices GIN gin_trgm_ops. Compare os tempos de
+-- execução (Execution Time) de cada par de EXPLAIN.
+-- =====================================================
+
+\set ON_ERROR_STOP on
+\if :{?orders}
+\else
+\set orders 1000000
+\endif
+
+\echo 'Populando' :orders 'pedidos com 3 itens cada...'
+
+INSERT INTO orders (id, customer_name, status, discount, total_amount, created_at, updated_at)
+SELECT gen_random_uuid(),
+       (ARRAY ['João', 'Maria', 'Carlos', 'Ana', 'Pedro', 'Julia', 'Lucas', 'Beatriz'])[1 + g % 8]
+           || ' '
+           || (ARRAY ['Silva', 'Souza', 'Oliveira', 'Santos', 'Lima', 'Costa', 'Pereira', 'Almeida'])[1 + (g / 8) % 8]
+           || ' ' || substr(md5(g::text), 1, 8),
+       (ARRAY ['PENDING', 'CONFIRMED', 'SHIPPED', 'DELIVERED', 'CANCELLED'])[1 + g % 5],
+       0,
+       0,
+       NOW() - (g || ' seconds')::interval,
+       NOW() - (g || ' seconds')::interval
+FROM generate_series(1, :orders) g;
+
+INSERT INTO order_items (id, order_id, product, quantity, unit_price)
+SELECT gen_random_uuid(), o.id, 'Produto ' || n, n, 49.90
+FROM orders o,
+     generate_series(1, 3) n;
+
+REFRESH MATERIALIZED VIEW order_summary_mview;
+ANALYZE orders;
+ANALYZE order_items;
+ANALYZE order_summary_mview;
+
+\echo '=== Materialized View: termo seletivo ==='
+
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT * FROM order_summary_mview
+WHERE LOWER(customer_name) LIKE LOWER('%silva 1a2b%')
+ORDER BY created_at DESC LIMIT 20;
+
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT * FROM order_summary_mview
+WHERE customer_name ILIKE '%silva 1a2b%'
+ORDER BY created_at DESC LIMIT 20;
+
+\echo '=== Materialized View: COUNT da paginação ==='
+
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT COUNT(*) FROM order_summary_mview
+WHERE LOWER(customer_name) LIKE LOWER('%silva 1a2b%');
+
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT COUNT(*) FROM order_summary_mview
+WHERE customer_name ILIKE '%silva 1a2b%';
+
+\echo '=== Tabela orders (lado JPQL) ==='
+
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT COUNT(*) FROM orders
+WHERE LOWER(customer_name) LIKE LOWER('%silva 1a2b%');
+
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT COUNT(*) FROM orders
+WHERE customer_name ILIKE '%silva 1a2b%';
@@ -0,0 +1,39 @@
+package com.poc.cqrs.benchmark;
+
+import org.flywaydb.core.Flyway;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+
+/**
+ * Conexão com o PostgreSQL local usado pelos benchmarks. Use um banco descartável:
+ * -Dbench.url=jdbc:postgresql://localhost:5432/cqrs_orders_bench
+ * -Dbench.user=postgres -Dbench.password=postgres
+ */
+final class BenchmarkDatabase {
+
+    private static final String URL = System.getProperty("bench.url",
+            "jdbc:postgresql://localhost:5432/cqrs_orders_bench?reWriteBatchedInserts=true");
+    private static final String USER = System.getProperty("bench.user", "postgres");
+    private static final String PASSWORD = System.getProperty("bench.password", "postgres");
+
+    private BenchmarkDatabase() {}
+
+    static Connection connect() throws SQLException {
+        return DriverManager.getConnection(URL, USER, PASSWORD);
+    }
+
+    /**
+     * Apaga o banco de benchmark e recria o schema com as mesmas migrations da aplicação.
+     */
+    static void recreateSchema() {
+        Flyway flyway = Flyway.configure()
+                .dataSource(URL, USER, PASSWORD)
+                .locations("classpath:db/migration")
+                .cleanDisabled(false)
+                .load();
+        flyway.clean();
+        flyway.migrate();
+    }
+}
@@ -0,0 +1,55 @@
+package com.poc.cqrs.benchmark;
+
+import com.poc.cqrs.command.id.IdGenerator;
+import com.poc.cqrs.command.id.RandomUuidGenerator;
+import com.poc.cqrs.command.id.UuidV7Generator;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Custo de geração de ids: UUID v4 ({@code UUID.randomUUID}) contra UUID v7,
+ * com uma thread e com todas as threads disputando o mesmo gerador.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class IdGeneratorBenchmark {
+
+    @Param({"random", "uuidv7"})
+    public String generator;
+
+    private IdGenerator ids;
+
+    @Setup
+    public void setUp() {
+        ids = IdGenerators.of(generator);
+    }
+
+    @Benchmark
+    public UUID singleThread() {
+        return ids.next();
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public UUID contended() {
+        return ids.next();
+    }
+
+    static final class IdGenerators {
+        private IdGenerators() {}
+
+        static IdGenerator of(String name) {
+            return switch (name) {
+                case "random" -> new RandomUuidGenerator();
+                case "uuidv7" -> new UuidV7Generator();
+                default -> throw new IllegalArgumentException("Gerador desconhecido: " + name);
+            };
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.poc.cqrs.benchmark;
+
+import com.poc.cqrs.command.id.IdGenerator;
+import org.openjdk.jmh.annotations.*;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Vazão de inserts no PostgreSQL com ids v4 contra v7, no mesmo formato das
+ * tabelas orders/order_items (chave primária UUID + índice por order_id).
+ * Cada operação grava um lote de pedidos com seus itens; as tabelas crescem
+ * ao longo da medição, que é quando a dispersão dos ids v4 pesa no índice.
+ *
+ * <p>Requer um PostgreSQL local (ver {@link BenchmarkDatabase}).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 10)
+@Measurement(iterations = 5, time = 10)
+@Fork(1)
+public class IdInsertBenchmark {
+
+    private static final int ORDERS_PER_BATCH = 500;
+    private static final int ITEMS_PER_ORDER = 3;
+
+    @Param({"random", "uuidv7"})
+    public String generator;
+
+    private IdGenerator ids;
+    private Connection connection;
+    private PreparedStatement insertOrder;
+    private PreparedStatement insertItem;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        ids = IdGeneratorBenchmark.IdGenerators.of(generator);
+        connection = BenchmarkDatabase.connect();
+        try (Statement ddl = connection.createStatement()) {
+            ddl.execute("DROP TABLE IF EXISTS bench_order_items, bench_orders");
+            ddl.execute("""
+                    CREATE TABLE bench_orders (
+                        id            UUID PRIMARY KEY,
+                        customer_name VARCHAR(255) NOT NULL,
+                        created_at    TIMESTAMP    NOT NULL
+                    )""");
+            ddl.execute("""
+                    CREATE TABLE bench_order_items (
+                        id       UUID PRIMARY KEY,
+                        order_id UUID NOT NULL REFERENCES bench_orders (id),
+                        product  VARCHAR(255) NOT NULL
+                    )""");
+            ddl.execute("CREATE INDEX idx_bench_order_items_order_id ON bench_order_items (order_id)");
+        }
+        connection.setAutoCommit(false);
+        insertOrder = connection.prepareStatement(
+                "INSERT INTO bench_orders (id, customer_name, created_at) VALUES (?, ?, ?)");
+        insertItem = connection.prepareStatement(
+                "INSERT INTO bench_order_items (id, order_id, product) VALUES (?, ?, ?)");
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ORDERS_PER_BATCH)
+    public void insertOrders() throws SQLException {
+        var now = new Timestamp(System.currentTimeMillis());
+        for (int i = 0; i < ORDERS_PER_BATCH; i++) {
+            UUID orderId = ids.next();
+            insertOrder.setObject(1, orderId);
+            insertOrder.setString(2, "Cliente " + i);
+            insertOrder.setTimestamp(3, now);
+            insertOrder.addBatch();
+            for (int j = 0; j < ITEMS_PER_ORDER; j++) {
+                insertItem.setObject(1, ids.next());
+                insertItem.setObject(2, orderId);
+                insertItem.setString(3, "Produto " + j);
+                insertItem.addBatch();
+            }
+        }
+        insertOrder.executeBatch();
+        insertItem.executeBatch();
+        connection.commit();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        try (Statement ddl = connection.createStatement()) {
+            ddl.execute("DROP TABLE IF EXISTS bench_order_items, bench_orders");
+        }
+        connection.commit();
+        connection.close();
+    }
+}
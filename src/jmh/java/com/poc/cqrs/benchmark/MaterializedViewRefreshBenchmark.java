@@ -0,0 +1,71 @@
+package com.poc.cqrs.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Custo do {@code REFRESH MATERIALIZED VIEW CONCURRENTLY} conforme o volume
+ * de pedidos cresce. Antes de cada refresh, {@link #changedOrders} pedidos
+ * são alterados, para o refresh ter diferenças a aplicar como em produção.
+ *
+ * <p>Requer um PostgreSQL local (ver {@link BenchmarkDatabase}).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(1)
+public class MaterializedViewRefreshBenchmark {
+
+    @Param({"10000", "100000", "1000000"})
+    public int orders;
+
+    @Param({"3"})
+    public int itemsPerOrder;
+
+    @Param({"100"})
+    public int changedOrders;
+
+    private Connection connection;
+    private UUID[] sampleIds;
+    private PreparedStatement touchOrders;
+    private Statement refresh;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        connection = BenchmarkDatabase.connect();
+        OrderDataSeeder.seed(connection, orders, itemsPerOrder);
+        sampleIds = OrderDataSeeder.sampleOrderIds(connection, 10_000);
+        touchOrders = connection.prepareStatement(
+                "UPDATE orders SET updated_at = NOW() WHERE id = ANY (?)");
+        refresh = connection.createStatement();
+    }
+
+    @Setup(Level.Invocation)
+    public void changeOrders() throws SQLException {
+        var random = ThreadLocalRandom.current();
+        int offset = random.nextInt(Math.max(1, sampleIds.length - changedOrders));
+        UUID[] ids = Arrays.copyOfRange(sampleIds, offset, Math.min(sampleIds.length, offset + changedOrders));
+        touchOrders.setArray(1, connection.createArrayOf("uuid", ids));
+        touchOrders.executeUpdate();
+    }
+
+    @Benchmark
+    public void refreshConcurrently() throws SQLException {
+        refresh.execute("REFRESH MATERIALIZED VIEW CONCURRENTLY order_summary_mview");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        connection.close();
+    }
+}
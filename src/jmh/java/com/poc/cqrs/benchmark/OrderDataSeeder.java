@@ -0,0 +1,92 @@
+package com.poc.cqrs.benchmark;
+
+import com.poc.cqrs.command.entity.Order;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Popula as tabelas de escrita com pedidos sintéticos gerados no próprio banco
+ * (generate_series), atualiza a Materialized View e as estatísticas do planner.
+ * Os clientes se repetem a cada 5000 pedidos e os status se alternam, para os
+ * filtros terem seletividade parecida com a real.
+ */
+final class OrderDataSeeder {
+
+    private static final String INSERT_ORDERS = """
+            INSERT INTO orders (id, customer_name, status, discount, total_amount, created_at, updated_at)
+            SELECT gen_random_uuid(),
+                   'Cliente ' || (g % 5000),
+                   (ARRAY['PENDING', 'CONFIRMED', 'SHIPPED', 'DELIVERED', 'CANCELLED'])[1 + g % 5],
+                   0, 0,
+                   NOW() - make_interval(secs => g),
+                   NOW() - make_interval(secs => g)
+            FROM generate_series(1, ?) g
+            """;
+
+    private static final String INSERT_ITEMS = """
+            INSERT INTO order_items (id, order_id, product, quantity, unit_price)
+            SELECT gen_random_uuid(), o.id, 'Produto ' || i, 1 + i % 3, 10 + i * 5
+            FROM orders o
+                     CROSS JOIN generate_series(1, ?) i
+            """;
+
+    // Mesma regra de Order#recalculate (e do SQL de remoção de item): desconto acima do limite
+    private static final String UPDATE_TOTALS = """
+            UPDATE orders o
+            SET subtotal     = s.subtotal,
+                item_count   = s.item_count,
+                discount     = CASE WHEN s.subtotal > ? THEN ? ELSE 0 END,
+                total_amount = CASE
+                                   WHEN s.subtotal > ? THEN s.subtotal - ROUND(s.subtotal * ? / 100, 2)
+                                   ELSE s.subtotal END
+            FROM (SELECT order_id, SUM(quantity * unit_price) AS subtotal, COUNT(*) AS item_count
+                  FROM order_items
+                  GROUP BY order_id) s
+            WHERE s.order_id = o.id
+            """;
+
+    private OrderDataSeeder() {}
+
+    static void seed(Connection connection, int orders, int itemsPerOrder) throws SQLException {
+        BenchmarkDatabase.recreateSchema();
+        try (PreparedStatement insertOrders = connection.prepareStatement(INSERT_ORDERS);
+             PreparedStatement insertItems = connection.prepareStatement(INSERT_ITEMS);
+             PreparedStatement updateTotals = connection.prepareStatement(UPDATE_TOTALS);
+             Statement statement = connection.createStatement()) {
+            insertOrders.setInt(1, orders);
+            insertOrders.executeUpdate();
+            insertItems.setInt(1, itemsPerOrder);
+            insertItems.executeUpdate();
+            updateTotals.setBigDecimal(1, Order.DISCOUNT_THRESHOLD);
+            updateTotals.setBigDecimal(2, Order.DISCOUNT_PERCENTAGE);
+            updateTotals.setBigDecimal(3, Order.DISCOUNT_THRESHOLD);
+            updateTotals.setBigDecimal(4, Order.DISCOUNT_PERCENTAGE);
+            updateTotals.executeUpdate();
+            statement.execute("REFRESH MATERIALIZED VIEW order_summary_mview");
+            statement.execute("VACUUM ANALYZE");
+        }
+    }
+
+    /**
+     * Amostra de ids existentes, usada nas consultas por id e nas alterações.
+     */
+    static UUID[] sampleOrderIds(Connection connection, int count) throws SQLException {
+        List<UUID> ids = new ArrayList<>(count);
+        try (PreparedStatement select = connection.prepareStatement(
+                "SELECT id FROM orders ORDER BY random() LIMIT ?")) {
+            select.setInt(1, count);
+            try (var rs = select.executeQuery()) {
+                while (rs.next()) {
+                    ids.add(rs.getObject(1, UUID.class));
+                }
+            }
+        }
+        return ids.toArray(UUID[]::new);
+    }
+}
@@ -0,0 +1,67 @@
+package com.poc.cqrs.benchmark;
+
+import com.poc.cqrs.command.entity.Order;
+import com.poc.cqrs.command.entity.OrderItem;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Custo do recálculo de totais do pedido conforme o número de itens:
+ * {@link Order#recalculate()} (subtotal por item em cache, laço simples)
+ * contra o cálculo anterior (stream + subtotal recalculado a cada chamada).
+ * Rode com {@code -prof gc} para ver a alocação por operação.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OrderRecalculateBenchmark {
+
+    private static final BigDecimal DISCOUNT_THRESHOLD = new BigDecimal("500.00");
+    private static final BigDecimal DISCOUNT_PERCENTAGE = new BigDecimal("10.00");
+
+    @Param({"10", "100", "500"})
+    public int items;
+
+    private Order order;
+    private List<OrderItem> orderItems;
+
+    @Setup
+    public void setUp() {
+        orderItems = new ArrayList<>(items);
+        for (int i = 0; i < items; i++) {
+            orderItems.add(OrderItem.create(UUID.randomUUID(), "Produto " + i,
+                    1 + i % 7, BigDecimal.valueOf(1_999 + i * 37L, 2)));
+        }
+        order = Order.create(UUID.randomUUID(), "Cliente", orderItems);
+    }
+
+    @Benchmark
+    public BigDecimal recalculate() {
+        order.recalculate();
+        return order.getTotalAmount();
+    }
+
+    @Benchmark
+    public BigDecimal legacyRecalculate() {
+        BigDecimal subtotal = orderItems.stream()
+                .map(item -> item.getUnitPrice().multiply(BigDecimal.valueOf(item.getQuantity())))
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+
+        if (subtotal.compareTo(DISCOUNT_THRESHOLD) > 0) {
+            BigDecimal discountValue = subtotal
+                    .multiply(DISCOUNT_PERCENTAGE)
+                    .divide(new BigDecimal("100"), 2, RoundingMode.HALF_UP);
+            return subtotal.subtract(discountValue);
+        }
+        return subtotal;
+    }
+}
@@ -0,0 +1,191 @@
+package com.poc.cqrs.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compara as duas estratégias de leitura do README: a Materialized View
+ * ({@code /api/orders/view}) e o JOIN + GROUP BY sobre as tabelas de escrita
+ * ({@code /api/orders/jpql}). As consultas são o SQL equivalente ao que o
+ * Hibernate gera para cada endpoint; a página inclui o COUNT, como no Page
+ * do Spring Data. Mede só o custo no banco, sem o mapeamento do ORM.
+ *
+ * <p>Requer um PostgreSQL local (ver {@link BenchmarkDatabase}).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 10)
+@Fork(1)
+public class ReadStrategyBenchmark {
+
+    private static final int PAGE_SIZE = 20;
+    private static final String FILTER_STATUS = "SHIPPED";
+    private static final String FILTER_CUSTOMER = "%Cliente 42%";
+
+    private static final String VIEW_COLUMNS = """
+            order_id, customer_name, status, discount, total_items,
+            subtotal, total_with_discount, created_at, updated_at""";
+
+    private static final String VIEW_PAGE = "SELECT " + VIEW_COLUMNS
+            + " FROM order_summary_mview ORDER BY created_at DESC LIMIT ? OFFSET ?";
+    private static final String VIEW_COUNT = "SELECT COUNT(*) FROM order_summary_mview";
+
+    private static final String VIEW_FILTERED_PAGE = "SELECT " + VIEW_COLUMNS
+            + " FROM order_summary_mview WHERE status = ? AND customer_name ILIKE ?"
+            + " ORDER BY created_at DESC LIMIT ? OFFSET ?";
+    private static final String VIEW_FILTERED_COUNT =
+            "SELECT COUNT(*) FROM order_summary_mview WHERE status = ? AND customer_name ILIKE ?";
+
+    private static final String VIEW_BY_ID = "SELECT " + VIEW_COLUMNS
+            + " FROM order_summary_mview WHERE order_id = ?";
+
+    private static final String JPQL_SELECT = """
+            SELECT o.id, o.customer_name, o.status, o.discount,
+                   COUNT(i.id), COALESCE(SUM(i.unit_price * i.quantity), 0),
+                   o.total_amount, o.created_at, o.updated_at
+            FROM orders o
+                     LEFT JOIN order_items i ON i.order_id = o.id
+            """;
+    private static final String JPQL_GROUP_BY = """
+             GROUP BY o.id, o.customer_name, o.status, o.discount,
+                      o.total_amount, o.created_at, o.updated_at
+            """;
+
+    private static final String JPQL_PAGE = JPQL_SELECT + JPQL_GROUP_BY
+            + " ORDER BY o.created_at DESC LIMIT ? OFFSET ?";
+    private static final String JPQL_COUNT = "SELECT COUNT(*) FROM orders o";
+
+    private static final String JPQL_FILTERED_PAGE = JPQL_SELECT
+            + " WHERE o.status = ? AND o.customer_name ILIKE ?" + JPQL_GROUP_BY
+            + " ORDER BY o.created_at DESC LIMIT ? OFFSET ?";
+    private static final String JPQL_FILTERED_COUNT =
+            "SELECT COUNT(*) FROM orders o WHERE o.status = ? AND o.customer_name ILIKE ?";
+
+    private static final String JPQL_BY_ID = JPQL_SELECT + " WHERE o.id = ?" + JPQL_GROUP_BY;
+
+    @Param({"10000", "100000"})
+    public int orders;
+
+    @Param({"3"})
+    public int itemsPerOrder;
+
+    /** Página pedida na listagem (OFFSET = page * 20). */
+    @Param({"0", "50"})
+    public int page;
+
+    private Connection connection;
+    private UUID[] sampleIds;
+
+    private PreparedStatement viewPage;
+    private PreparedStatement viewCount;
+    private PreparedStatement viewFilteredPage;
+    private PreparedStatement viewFilteredCount;
+    private PreparedStatement viewById;
+    private PreparedStatement jpqlPage;
+    private PreparedStatement jpqlCount;
+    private PreparedStatement jpqlFilteredPage;
+    private PreparedStatement jpqlFilteredCount;
+    private PreparedStatement jpqlById;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        connection = BenchmarkDatabase.connect();
+        OrderDataSeeder.seed(connection, orders, itemsPerOrder);
+        sampleIds = OrderDataSeeder.sampleOrderIds(connection, 1_000);
+
+        viewPage = connection.prepareStatement(VIEW_PAGE);
+        viewCount = connection.prepareStatement(VIEW_COUNT);
+        viewFilteredPage = connection.prepareStatement(VIEW_FILTERED_PAGE);
+        viewFilteredCount = connection.prepareStatement(VIEW_FILTERED_COUNT);
+        viewById = connection.prepareStatement(VIEW_BY_ID);
+        jpqlPage = connection.prepareStatement(JPQL_PAGE);
+        jpqlCount = connection.prepareStatement(JPQL_COUNT);
+        jpqlFilteredPage = connection.prepareStatement(JPQL_FILTERED_PAGE);
+        jpqlFilteredCount = connection.prepareStatement(JPQL_FILTERED_COUNT);
+        jpqlById = connection.prepareStatement(JPQL_BY_ID);
+    }
+
+    @Benchmark
+    public void viewListPage(Blackhole bh) throws SQLException {
+        page(viewPage, 1);
+        consume(viewPage, bh);
+        consume(viewCount, bh);
+    }
+
+    @Benchmark
+    public void viewFilteredList(Blackhole bh) throws SQLException {
+        filter(viewFilteredPage);
+        page(viewFilteredPage, 3);
+        consume(viewFilteredPage, bh);
+        filter(viewFilteredCount);
+        consume(viewFilteredCount, bh);
+    }
+
+    @Benchmark
+    public void viewById(Blackhole bh) throws SQLException {
+        viewById.setObject(1, randomId());
+        consume(viewById, bh);
+    }
+
+    @Benchmark
+    public void jpqlListPage(Blackhole bh) throws SQLException {
+        page(jpqlPage, 1);
+        consume(jpqlPage, bh);
+        consume(jpqlCount, bh);
+    }
+
+    @Benchmark
+    public void jpqlFilteredList(Blackhole bh) throws SQLException {
+        filter(jpqlFilteredPage);
+        page(jpqlFilteredPage, 3);
+        consume(jpqlFilteredPage, bh);
+        filter(jpqlFilteredCount);
+        consume(jpqlFilteredCount, bh);
+    }
+
+    @Benchmark
+    public void jpqlById(Blackhole bh) throws SQLException {
+        jpqlById.setObject(1, randomId());
+        consume(jpqlById, bh);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        connection.close();
+    }
+
+    private void page(PreparedStatement statement, int firstIndex) throws SQLException {
+        statement.setInt(firstIndex, PAGE_SIZE);
+        statement.setInt(firstIndex + 1, page * PAGE_SIZE);
+    }
+
+    private static void filter(PreparedStatement statement) throws SQLException {
+        statement.setString(1, FILTER_STATUS);
+        statement.setString(2, FILTER_CUSTOMER);
+    }
+
+    private UUID randomId() {
+        return sampleIds[ThreadLocalRandom.current().nextInt(sampleIds.length)];
+    }
+
+    private static void consume(PreparedStatement statement, Blackhole bh) throws SQLException {
+        try (ResultSet rs = statement.executeQuery()) {
+            int columns = rs.getMetaData().getColumnCount();
+            while (rs.next()) {
+                for (int i = 1; i <= columns; i++) {
+                    bh.consume(rs.getObject(i));
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.poc.cqrs.benchmark;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.poc.cqrs.command.enums.OrderStatus;
+import com.poc.cqrs.query.dto.OrderSummaryJpqlView;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialização de uma página de pedidos em JSON, Smile e CBOR, com o mesmo
+ * builder de ObjectMapper da aplicação. Os contadores {@code rows} e
+ * {@code bytes} dão linhas por segundo e bytes por segundo; a razão entre
+ * eles (bytes por linha) também é impressa no início de cada trial.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SerializationBenchmark {
+
+    @Param({"json", "smile", "cbor"})
+    public String format;
+
+    @Param({"20", "1000"})
+    public int rows;
+
+    private ObjectWriter writer;
+    private List<OrderSummaryJpqlView> page;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Output {
+        public long rows;
+        public long bytes;
+    }
+
+    @Setup
+    public void setUp() throws IOException {
+        JsonFactory factory = switch (format) {
+            case "json" -> new JsonFactory();
+            case "smile" -> new SmileFactory();
+            case "cbor" -> new CBORFactory();
+            default -> throw new IllegalArgumentException("Formato desconhecido: " + format);
+        };
+        // Mesmos padrões do ObjectMapper do Spring Boot
+        writer = Jackson2ObjectMapperBuilder.json()
+                .factory(factory)
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build()
+                .writer();
+
+        var statuses = OrderStatus.values();
+        var base = LocalDateTime.of(2024, 1, 1, 0, 0);
+        page = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            var subtotal = BigDecimal.valueOf(10_000 + i * 1_337L, 2);
+            page.add(new OrderSummaryJpqlView(
+                    UUID.randomUUID(),
+                    "Cliente " + i,
+                    statuses[i % statuses.length],
+                    BigDecimal.valueOf(i % 2 == 0 ? 1_000 : 0, 2),
+                    (long) (1 + i % 5),
+                    subtotal,
+                    subtotal.multiply(BigDecimal.valueOf(90, 2)).setScale(2, RoundingMode.HALF_UP),
+                    base.plusMinutes(i * 7L).plusNanos(123_456_000L),
+                    base.plusMinutes(i * 7L + 3).plusNanos(654_321_000L)));
+        }
+
+        int size = writer.writeValueAsBytes(page).length;
+        System.out.printf("%n%s: %d bytes para %d linhas (%.1f bytes/linha)%n",
+                format, size, rows, (double) size / rows);
+    }
+
+    @Benchmark
+    public int serialize(Output output) throws IOException {
+        var out = new ByteArrayOutputStream(rows * 256);
+        writer.writeValue(out, page);
+        output.rows += rows;
+        output.bytes += out.size();
+        return out.size();
+    }
+}
@@ -1,6 +1,11 @@
 package com.poc.cqrs.command.controller;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.poc.cqrs.command.controller.api.OrderCommandApi;
+import com.poc.cqrs.command.dto.BatchCreateOrdersResult;
+import com.poc.cqrs.command.dto.BulkUpdateOrderStatusCommand;
+import com.poc.cqrs.command.dto.BulkUpdateOrderStatusResult;
 import com.poc.cqrs.command.dto.CreateOrderCommand;
 import com.poc.cqrs.command.dto.RemoveOrderItemCommand;
 import com.poc.cqrs.command.dto.UpdateOrderStatusCommand;
@@ -10,6 +15,13 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 
@@ -17,9 +29,11 @@ import java.util.UUID;
 public class OrderCommandController implements OrderCommandApi {
 
     private final OrderCommandService commandService;
+    private final ObjectMapper objectMapper;
 
-    public OrderCommandController(OrderCommandService commandService) {
+    public OrderCommandController(OrderCommandService commandService, ObjectMapper objectMapper) {
         this.commandService = commandService;
+        this.objectMapper = objectMapper;
     }
 
     @Override
@@ -31,6 +45,34 @@ public class OrderCommandController implements OrderCommandApi {
                 .body(Map.of("orderId", orderId));
     }
 
+    @Override
+    public ResponseEntity<BatchCreateOrdersResult> createBatch(
+            @RequestBody List<CreateOrderCommand> cmds
+    ) {
+        return ResponseEntity.ok(commandService.createOrders(cmds));
+    }
+
+    @Override
+    public ResponseEntity<BatchCreateOrdersResult> createBatchNdjson(InputStream body) throws IOException {
+        var cmds = new ArrayList<CreateOrderCommand>();
+        var reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+        String line;
+        int lineNumber = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            try {
+                cmds.add(objectMapper.readValue(line, CreateOrderCommand.class));
+            } catch (JsonProcessingException ex) {
+                throw new IllegalArgumentException(
+                        "Linha " + lineNumber + " inválida: " + ex.getOriginalMessage());
+            }
+        }
+        return ResponseEntity.ok(commandService.createOrders(cmds));
+    }
+
     @Override
     public ResponseEntity<Void> updateStatus(
             @Valid @RequestBody UpdateOrderStatusCommand cmd
@@ -39,6 +81,13 @@ public class OrderCommandController implements OrderCommandApi {
         return ResponseEntity.noContent().build();
     }
 
+    @Override
+    public ResponseEntity<BulkUpdateOrderStatusResult> updateStatusBulk(
+            @Valid @RequestBody BulkUpdateOrderStatusCommand cmd
+    ) {
+        return ResponseEntity.ok(commandService.bulkUpdateOrderStatus(cmd));
+    }
+
     @Override
     public ResponseEntity<Void> removeItem(
             @Valid @RequestBody RemoveOrderItemCommand cmd
@@ -0,0 +1,32 @@
+package com.poc.cqrs.command.controller;
+
+import com.poc.cqrs.command.controller.api.ReadModelAdminApi;
+import com.poc.cqrs.command.dto.ReadModelRebuildStatus;
+import com.poc.cqrs.command.service.ReadModelRebuildService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+public class ReadModelAdminController implements ReadModelAdminApi {
+
+    private final ReadModelRebuildService rebuildService;
+
+    public ReadModelAdminController(ReadModelRebuildService rebuildService) {
+        this.rebuildService = rebuildService;
+    }
+
+    @Override
+    public ResponseEntity<ReadModelRebuildStatus> rebuild(
+            @RequestParam(required = false) Integer workers,
+            @RequestParam(defaultValue = "false") boolean resume
+    ) {
+        return ResponseEntity.accepted().body(rebuildService.start(workers, resume));
+    }
+
+    @Override
+    public ResponseEntity<ReadModelRebuildStatus> rebuildStatus() {
+        return ResponseEntity.ok(rebuildService.status()
+                .orElseThrow(() -> new IllegalArgumentException("Nenhum rebuild do read model executado")));
+    }
+}
@@ -1,17 +1,25 @@
 package com.poc.cqrs.command.controller.api;
 
+import com.poc.cqrs.command.dto.BatchCreateOrdersResult;
+import com.poc.cqrs.command.dto.BulkUpdateOrderStatusCommand;
+import com.poc.cqrs.command.dto.BulkUpdateOrderStatusResult;
 import com.poc.cqrs.command.dto.CreateOrderCommand;
 import com.poc.cqrs.command.dto.RemoveOrderItemCommand;
 import com.poc.cqrs.command.dto.UpdateOrderStatusCommand;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.ExampleObject;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 
@@ -48,6 +56,57 @@ public interface OrderCommandApi {
     @PostMapping
     ResponseEntity<Map<String, UUID>> create(@Valid @RequestBody CreateOrderCommand cmd);
 
+    @Operation(
+            summary = "Criar pedidos em lote",
+            description = """
+                    Cria vários pedidos em uma única requisição (ex: ingestão de feeds de marketplace).
+                    Cada entrada é validada individualmente: as inválidas são reportadas na resposta
+                    e não impedem a criação das demais.
+
+                    Os inserts são enviados em lotes JDBC e o read model é atualizado
+                    **uma única vez por lote**.
+                    """,
+            requestBody = @io.swagger.v3.oas.annotations.parameters.RequestBody(
+                    content = @Content(examples = @ExampleObject(
+                            name = "Lote com dois pedidos",
+                            value = """
+                                    [
+                                      {
+                                        "customerName": "João Silva",
+                                        "items": [ { "product": "Notebook Dell", "quantity": 1, "unitPrice": 3500.00 } ]
+                                      },
+                                      {
+                                        "customerName": "Maria Oliveira",
+                                        "items": [ { "product": "Cabo HDMI 2m", "quantity": 3, "unitPrice": 35.00 } ]
+                                      }
+                                    ]
+                                    """
+                    ))
+            ),
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Resultado por pedido, na ordem recebida"),
+                    @ApiResponse(responseCode = "400", description = "Lote vazio ou acima do limite")
+            }
+    )
+    @PostMapping(value = "/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    ResponseEntity<BatchCreateOrdersResult> createBatch(@RequestBody List<CreateOrderCommand> cmds);
+
+    @Operation(
+            summary = "Criar pedidos em lote (NDJSON)",
+            description = """
+                    Mesmo comportamento de `POST /api/orders/batch`, recebendo um pedido JSON
+                    por linha (`Content-Type: application/x-ndjson`).
+                    Uma linha que não é um JSON válido rejeita a requisição inteira.
+                    """,
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Resultado por pedido, na ordem recebida"),
+                    @ApiResponse(responseCode = "400", description = "Linha malformada, lote vazio ou acima do limite")
+            }
+    )
+    @PostMapping(value = "/batch", consumes = "application/x-ndjson")
+    ResponseEntity<BatchCreateOrdersResult> createBatchNdjson(@Parameter(hidden = true) InputStream body)
+            throws IOException;
+
     @Operation(
             summary = "Atualizar status do pedido",
             description = """
@@ -77,6 +136,50 @@ public interface OrderCommandApi {
     @PatchMapping("/status")
     ResponseEntity<Void> updateStatus(@Valid @RequestBody UpdateOrderStatusCommand cmd);
 
+    @Operation(
+            summary = "Atualizar status de vários pedidos",
+            description = """
+                    Aplica a mesma transição a vários pedidos (ex: fechamento de uma onda de expedição).
+                    Informe os pedidos por `orderIds` **ou** todos os que estão em `currentStatus`.
+
+                    As regras de transição são as mesmas de `PATCH /api/orders/status`, aplicadas
+                    em UPDATEs em conjunto. Pedidos recusados são listados com o motivo e não
+                    impedem os demais. O read model é atualizado **uma única vez**.
+                    """,
+            requestBody = @io.swagger.v3.oas.annotations.parameters.RequestBody(
+                    content = @Content(examples = {
+                            @ExampleObject(
+                                    name = "Por ids",
+                                    value = """
+                                            {
+                                              "orderIds": [
+                                                "550e8400-e29b-41d4-a716-446655440000",
+                                                "550e8400-e29b-41d4-a716-446655440001"
+                                              ],
+                                              "newStatus": "SHIPPED"
+                                            }
+                                            """
+                            ),
+                            @ExampleObject(
+                                    name = "Por status atual",
+                                    value = """
+                                            {
+                                              "currentStatus": "CONFIRMED",
+                                              "newStatus": "SHIPPED"
+                                            }
+                                            """
+                            )
+                    })
+            ),
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Pedidos alterados e recusados"),
+                    @ApiResponse(responseCode = "400", description = "Nenhum ou ambos os critérios, ou lote acima do limite"),
+                    @ApiResponse(responseCode = "409", description = "Transição inválida para o status atual informado")
+            }
+    )
+    @PatchMapping("/status/bulk")
+    ResponseEntity<BulkUpdateOrderStatusResult> updateStatusBulk(@Valid @RequestBody BulkUpdateOrderStatusCommand cmd);
+
     @Operation(
             summary = "Remover item do pedido",
             description = """
@@ -0,0 +1,53 @@
+package com.poc.cqrs.command.controller.api;
+
+import com.poc.cqrs.command.dto.ReadModelRebuildStatus;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+
+@Tag(name = "Admin - Read Model")
+@RequestMapping("/api/admin/read-model")
+public interface ReadModelAdminApi {
+
+    @Operation(
+            summary = "Reconstruir o read model em paralelo",
+            description = """
+                    Reconstrói a tabela `order_summary` (modo `incremental`) em background.
+                    Os pedidos são divididos em faixas de `order_id`, carregadas em paralelo numa
+                    tabela sombra por `workers` conexões. Ao final, os índices são criados em
+                    paralelo e a tabela sombra substitui a atual numa única transação.
+
+                    Com `resume=true`, retoma o último rebuild interrompido a partir das faixas
+                    ainda não carregadas. Acompanhe o andamento em `GET /api/admin/read-model/rebuild`.
+                    """,
+            responses = {
+                    @ApiResponse(responseCode = "202", description = "Rebuild iniciado"),
+                    @ApiResponse(responseCode = "400", description = "Número de workers inválido ou nada para retomar"),
+                    @ApiResponse(responseCode = "409", description = "Rebuild já em execução ou modo materialized-view")
+            }
+    )
+    @PostMapping("/rebuild")
+    ResponseEntity<ReadModelRebuildStatus> rebuild(
+            @Parameter(description = "Conexões/threads usadas na carga (padrão: cqrs.read-model.rebuild.workers)",
+                    example = "8")
+            @RequestParam(required = false) Integer workers,
+
+            @Parameter(description = "Retomar o último rebuild não concluído", example = "false")
+            @RequestParam(defaultValue = "false") boolean resume);
+
+    @Operation(
+            summary = "Andamento do último rebuild",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Faixas concluídas e linhas gravadas"),
+                    @ApiResponse(responseCode = "400", description = "Nenhum rebuild executado")
+            }
+    )
+    @GetMapping("/rebuild")
+    ResponseEntity<ReadModelRebuildStatus> rebuildStatus();
+}
@@ -0,0 +1,34 @@
+package com.poc.cqrs.command.dto;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Resultado da criação em lote: um item por entrada, na ordem recebida.
+ */
+public record BatchCreateOrdersResult(
+        int total,
+        int created,
+        int failed,
+        List<ItemResult> items
+) {
+    public static BatchCreateOrdersResult of(List<ItemResult> items) {
+        int created = (int) items.stream().filter(ItemResult::success).count();
+        return new BatchCreateOrdersResult(items.size(), created, items.size() - created, items);
+    }
+
+    public record ItemResult(
+            int index,
+            boolean success,
+            UUID orderId,
+            String error
+    ) {
+        public static ItemResult created(int index, UUID orderId) {
+            return new ItemResult(index, true, orderId, null);
+        }
+
+        public static ItemResult failed(int index, String error) {
+            return new ItemResult(index, false, null, error);
+        }
+    }
+}
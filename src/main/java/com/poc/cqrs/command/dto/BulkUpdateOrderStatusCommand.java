@@ -0,0 +1,17 @@
+package com.poc.cqrs.command.dto;
+
+import com.poc.cqrs.command.enums.OrderStatus;
+import jakarta.validation.constraints.NotNull;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Transição em massa: informe os pedidos por {@code orderIds}
+ * ou todos os que estão em {@code currentStatus}, nunca os dois.
+ */
+public record BulkUpdateOrderStatusCommand(
+        List<UUID> orderIds,
+        OrderStatus currentStatus,
+        @NotNull OrderStatus newStatus
+) {}
@@ -0,0 +1,23 @@
+package com.poc.cqrs.command.dto;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Resultado da transição em massa: pedidos alterados e recusados, com o motivo.
+ */
+public record BulkUpdateOrderStatusResult(
+        int transitionedCount,
+        int rejectedCount,
+        List<UUID> transitioned,
+        List<Rejected> rejected
+) {
+    public static BulkUpdateOrderStatusResult of(List<UUID> transitioned, List<Rejected> rejected) {
+        return new BulkUpdateOrderStatusResult(transitioned.size(), rejected.size(), transitioned, rejected);
+    }
+
+    public record Rejected(
+            UUID orderId,
+            String error
+    ) {}
+}
@@ -3,15 +3,18 @@ package com.poc.cqrs.command.dto;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
 import java.util.List;
 
 public record CreateOrderCommand(
         @NotBlank String customerName,
-        @NotEmpty @Valid List<OrderItemCommand> items
+        @NotEmpty List<@NotNull @Valid OrderItemCommand> items
 ) {
     public record OrderItemCommand(
             @NotBlank String product,
-            int quantity,
-            java.math.BigDecimal unitPrice
+            @Positive int quantity,
+            @NotNull @PositiveOrZero java.math.BigDecimal unitPrice
     ) {}
 }
@@ -0,0 +1,19 @@
+package com.poc.cqrs.command.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Andamento de uma reconstrução do read model: faixas concluídas e linhas gravadas na tabela sombra.
+ */
+public record ReadModelRebuildStatus(
+        long id,
+        String state,
+        int workers,
+        int chunks,
+        int chunksDone,
+        long rowsWritten,
+        LocalDateTime startedAt,
+        LocalDateTime finishedAt,
+        String error
+) {
+}
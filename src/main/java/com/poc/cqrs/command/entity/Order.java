@@ -2,6 +2,8 @@ package com.poc.cqrs.command.entity;
 
 import com.poc.cqrs.command.enums.OrderStatus;
 import jakarta.persistence.*;
+import org.springframework.data.domain.Persistable;
+
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.LocalDateTime;
@@ -11,10 +13,11 @@ import java.util.UUID;
 
 @Entity
 @Table(name = "orders")
-public class Order {
+public class Order implements Persistable<UUID> {
 
-    private static final BigDecimal DISCOUNT_THRESHOLD = new BigDecimal("500.00");
-    private static final BigDecimal DISCOUNT_PERCENTAGE = new BigDecimal("10.00");
+    public static final BigDecimal DISCOUNT_THRESHOLD = new BigDecimal("500.00");
+    public static final BigDecimal DISCOUNT_PERCENTAGE = new BigDecimal("10.00");
+    private static final BigDecimal HUNDRED = BigDecimal.valueOf(100);
 
     @Id
     private UUID id;
@@ -32,6 +35,12 @@ public class Order {
     @Column(name = "total_amount", nullable = false)
     private BigDecimal totalAmount;
 
+    @Column(nullable = false)
+    private BigDecimal subtotal;
+
+    @Column(name = "item_count", nullable = false)
+    private int itemCount;
+
     @OneToMany(mappedBy = "order", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<OrderItem> items = new ArrayList<>();
 
@@ -41,10 +50,21 @@ public class Order {
     @Column(name = "updated_at", nullable = false)
     private LocalDateTime updatedAt;
 
+    @Version
+    private long version;
+
+    /**
+     * O id é gerado na criação do aggregate, então o Spring Data não consegue
+     * deduzir se a entidade é nova. Sem isso, todo save de pedido novo faria
+     * um merge (SELECT antes do INSERT), o que também impede o batch de inserts.
+     */
+    @Transient
+    private boolean isNew = true;
+
     protected Order() {}
 
-    private Order(String customerName, List<OrderItem> items) {
-        this.id = UUID.randomUUID();
+    private Order(UUID id, String customerName, List<OrderItem> items) {
+        this.id = id;
         this.customerName = customerName;
         this.status = OrderStatus.PENDING;
         this.discount = BigDecimal.ZERO;
@@ -55,8 +75,8 @@ public class Order {
         recalculate();
     }
 
-    public static Order create(String customerName, List<OrderItem> items) {
-        return new Order(customerName, items);
+    public static Order create(UUID id, String customerName, List<OrderItem> items) {
+        return new Order(id, customerName, items);
     }
 
     // --- Regras de Negócio encapsuladas no Aggregate ---
@@ -76,15 +96,19 @@ public class Order {
      * Regra: pedidos acima de R$500 ganham 10% de desconto.
      */
     public void recalculate() {
-        BigDecimal subtotal = items.stream()
-                .map(OrderItem::getSubtotal)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        BigDecimal subtotal = BigDecimal.ZERO;
+        for (OrderItem item : items) {
+            subtotal = subtotal.add(item.getSubtotal());
+        }
+
+        this.subtotal = subtotal;
+        this.itemCount = items.size();
 
         if (subtotal.compareTo(DISCOUNT_THRESHOLD) > 0) {
             this.discount = DISCOUNT_PERCENTAGE;
             BigDecimal discountValue = subtotal
                     .multiply(DISCOUNT_PERCENTAGE)
-                    .divide(new BigDecimal("100"), 2, RoundingMode.HALF_UP);
+                    .divide(HUNDRED, 2, RoundingMode.HALF_UP);
             this.totalAmount = subtotal.subtract(discountValue);
         } else {
             this.discount = BigDecimal.ZERO;
@@ -95,28 +119,14 @@ public class Order {
     }
 
     /**
-     * Valida transições de estado permitidas.
-     * Ex: SHIPPED não pode voltar a PENDING, nem ser CANCELLED.
+     * Valida transições de estado permitidas (ver {@link OrderStatus#canTransitionTo}).
      */
     public void transitionTo(OrderStatus newStatus) {
         if (this.status == newStatus) {
             throw new IllegalStateException("Pedido já está no status " + newStatus);
         }
-
-        switch (this.status) {
-            case PENDING -> {
-                if (newStatus != OrderStatus.CONFIRMED && newStatus != OrderStatus.CANCELLED)
-                    throw invalidTransition(newStatus);
-            }
-            case CONFIRMED -> {
-                if (newStatus != OrderStatus.SHIPPED && newStatus != OrderStatus.CANCELLED)
-                    throw invalidTransition(newStatus);
-            }
-            case SHIPPED -> {
-                if (newStatus != OrderStatus.DELIVERED)
-                    throw invalidTransition(newStatus);
-            }
-            case DELIVERED, CANCELLED -> throw invalidTransition(newStatus);
+        if (!this.status.canTransitionTo(newStatus)) {
+            throw invalidTransition(newStatus);
         }
 
         this.status = newStatus;
@@ -132,13 +142,26 @@ public class Order {
         return !items.isEmpty();
     }
 
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        this.isNew = false;
+    }
+
+    @Override
+    public boolean isNew() { return isNew; }
+
     // --- Getters ---
+    @Override
     public UUID getId() { return id; }
     public String getCustomerName() { return customerName; }
     public OrderStatus getStatus() { return status; }
     public BigDecimal getDiscount() { return discount; }
     public BigDecimal getTotalAmount() { return totalAmount; }
+    public BigDecimal getSubtotal() { return subtotal; }
+    public int getItemCount() { return itemCount; }
     public List<OrderItem> getItems() { return List.copyOf(items); }
     public LocalDateTime getCreatedAt() { return createdAt; }
     public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public long getVersion() { return version; }
 }
@@ -29,19 +29,26 @@ public class OrderItem {
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
 
+    /**
+     * Quantidade e preço não mudam depois de criados, então o subtotal é
+     * calculado uma vez e reaproveitado em cada recálculo do pedido.
+     */
+    @Transient
+    private BigDecimal subtotal;
+
     protected OrderItem() {
     }
 
-    private OrderItem(String product, int quantity, BigDecimal unitPrice) {
-        this.id = UUID.randomUUID();
+    private OrderItem(UUID id, String product, int quantity, BigDecimal unitPrice) {
+        this.id = id;
         this.product = product;
         this.quantity = quantity;
         this.unitPrice = unitPrice;
         this.createdAt = LocalDateTime.now();
     }
 
-    public static OrderItem create(String product, int quantity, BigDecimal unitPrice) {
-        return new OrderItem(product, quantity, unitPrice);
+    public static OrderItem create(UUID id, String product, int quantity, BigDecimal unitPrice) {
+        return new OrderItem(id, product, quantity, unitPrice);
     }
 
     public UUID getId() {
@@ -73,6 +80,11 @@ public class OrderItem {
     }
 
     public BigDecimal getSubtotal() {
-        return unitPrice.multiply(BigDecimal.valueOf(quantity));
+        BigDecimal value = subtotal;
+        if (value == null) {
+            value = unitPrice.multiply(BigDecimal.valueOf(quantity));
+            subtotal = value;
+        }
+        return value;
     }
 }
@@ -1,9 +1,38 @@
 package com.poc.cqrs.command.enums;
 
+import java.util.EnumSet;
+import java.util.Set;
+
 public enum OrderStatus {
     PENDING,
     CONFIRMED,
     SHIPPED,
     DELIVERED,
-    CANCELLED
+    CANCELLED;
+
+    /**
+     * Transições de estado permitidas.
+     * Ex: SHIPPED não pode voltar a PENDING, nem ser CANCELLED.
+     */
+    public boolean canTransitionTo(OrderStatus target) {
+        return switch (this) {
+            case PENDING -> target == CONFIRMED || target == CANCELLED;
+            case CONFIRMED -> target == SHIPPED || target == CANCELLED;
+            case SHIPPED -> target == DELIVERED;
+            case DELIVERED, CANCELLED -> false;
+        };
+    }
+
+    /**
+     * Status a partir dos quais é possível chegar em {@code target}.
+     */
+    public static Set<OrderStatus> sourcesOf(OrderStatus target) {
+        var sources = EnumSet.noneOf(OrderStatus.class);
+        for (OrderStatus status : values()) {
+            if (status.canTransitionTo(target)) {
+                sources.add(status);
+            }
+        }
+        return sources;
+    }
 }
@@ -0,0 +1,12 @@
+package com.poc.cqrs.command.id;
+
+import java.util.UUID;
+
+/**
+ * Gera os ids dos aggregates do lado de escrita.
+ * Implementação selecionada por {@code cqrs.id-generator}.
+ */
+public interface IdGenerator {
+
+    UUID next();
+}
@@ -0,0 +1,19 @@
+package com.poc.cqrs.command.id;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+
+/**
+ * UUID v4 (aleatório). Espalha os inserts por todo o índice da chave primária.
+ */
+@Component
+@ConditionalOnProperty(name = "cqrs.id-generator", havingValue = "random")
+public class RandomUuidGenerator implements IdGenerator {
+
+    @Override
+    public UUID next() {
+        return UUID.randomUUID();
+    }
+}
@@ -0,0 +1,129 @@
+package com.poc.cqrs.command.repository;
+
+import com.poc.cqrs.command.entity.Order;
+import com.poc.cqrs.command.enums.OrderStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Operações do aggregate Order feitas direto em SQL, quando carregar os
+ * aggregates custaria proporcional ao número de itens ou de pedidos.
+ * As regras são as mesmas de {@link Order#recalculate()} e {@link Order#transitionTo}.
+ */
+@Repository
+public class OrderJdbcRepository {
+
+    private static final String DELETE_ITEM_SQL = """
+            DELETE FROM order_items
+            WHERE order_id = ? AND id = ?
+            RETURNING quantity * unit_price
+            """;
+
+    // O guard item_count > 1 é reavaliado pelo PostgreSQL sobre a versão mais
+    // recente da linha, então duas remoções concorrentes não esvaziam o pedido
+    private static final String APPLY_REMOVAL_SQL = """
+            UPDATE orders
+            SET subtotal     = subtotal - ?,
+                item_count   = item_count - 1,
+                discount     = CASE WHEN subtotal - ? > ? THEN ? ELSE 0 END,
+                total_amount = CASE
+                                   WHEN subtotal - ? > ? THEN (subtotal - ?) - ROUND((subtotal - ?) * ? / 100, 2)
+                                   ELSE subtotal - ? END,
+                version      = version + 1,
+                updated_at   = NOW()
+            WHERE id = ? AND item_count > 1
+            """;
+
+    // Mesma regra de Order#transitionTo: só muda quem está num status de origem válido
+    private static final String TRANSITION_BY_IDS_SQL = """
+            UPDATE orders
+            SET status     = ?,
+                version    = version + 1,
+                updated_at = NOW()
+            WHERE id = ANY (?) AND status = ANY (?)
+            RETURNING id
+            """;
+
+    private static final String TRANSITION_BY_STATUS_SQL = """
+            UPDATE orders
+            SET status     = ?,
+                version    = version + 1,
+                updated_at = NOW()
+            WHERE status = ?
+            RETURNING id
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public OrderJdbcRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Remove um item e aplica a diferença nos totais do pedido.
+     *
+     * @return {@code false} se o item não pertence ao pedido (nada é alterado)
+     * @throws IllegalStateException se o item for o último do pedido
+     */
+    public boolean removeItem(UUID orderId, UUID itemId) {
+        List<BigDecimal> removed = jdbcTemplate.queryForList(DELETE_ITEM_SQL, BigDecimal.class, orderId, itemId);
+        if (removed.isEmpty()) {
+            return false;
+        }
+
+        BigDecimal line = removed.get(0);
+        BigDecimal threshold = Order.DISCOUNT_THRESHOLD;
+        BigDecimal percentage = Order.DISCOUNT_PERCENTAGE;
+        int updated = jdbcTemplate.update(APPLY_REMOVAL_SQL,
+                line, line, threshold, percentage,
+                line, threshold, line, line, percentage,
+                line, orderId);
+        if (updated == 0) {
+            // A exceção desfaz o DELETE junto com a transação
+            throw new IllegalStateException(
+                    "Pedido ficaria sem itens. Cancele o pedido ao invés de remover o último item.");
+        }
+        return true;
+    }
+
+    /**
+     * Move para {@code target} os pedidos de {@code orderIds} que estão em um dos {@code sources}.
+     *
+     * @return ids efetivamente alterados
+     */
+    public List<UUID> transitionStatus(Collection<UUID> orderIds, Collection<OrderStatus> sources, OrderStatus target) {
+        return jdbcTemplate.query(TRANSITION_BY_IDS_SQL, ps -> {
+            ps.setString(1, target.name());
+            ps.setArray(2, ps.getConnection().createArrayOf("uuid", orderIds.toArray()));
+            ps.setArray(3, ps.getConnection().createArrayOf("varchar",
+                    sources.stream().map(OrderStatus::name).toArray()));
+        }, (rs, rowNum) -> rs.getObject(1, UUID.class));
+    }
+
+    public List<UUID> transitionAllWithStatus(OrderStatus current, OrderStatus target) {
+        return jdbcTemplate.query(TRANSITION_BY_STATUS_SQL,
+                (rs, rowNum) -> rs.getObject(1, UUID.class), target.name(), current.name());
+    }
+
+    public Map<UUID, OrderStatus> findStatuses(Collection<UUID> orderIds) {
+        var statuses = new HashMap<UUID, OrderStatus>();
+        jdbcTemplate.query("SELECT id, status FROM orders WHERE id = ANY (?)",
+                ps -> ps.setArray(1, ps.getConnection().createArrayOf("uuid", orderIds.toArray())),
+                rs -> {
+                    statuses.put(rs.getObject("id", UUID.class), OrderStatus.valueOf(rs.getString("status")));
+                });
+        return statuses;
+    }
+
+    public boolean exists(UUID orderId) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM orders WHERE id = ?)", Boolean.class, orderId));
+    }
+}
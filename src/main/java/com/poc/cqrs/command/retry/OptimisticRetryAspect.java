@@ -0,0 +1,76 @@
+package com.poc.cqrs.command.retry;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.OptimisticLockException;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Executa antes do interceptor de transação, então cada tentativa abre uma
+ * transação nova e relê o aggregate. O intervalo entre tentativas cresce
+ * exponencialmente com jitter completo, para commands concorrentes no mesmo
+ * pedido não colidirem de novo no mesmo instante.
+ * <p>
+ * Além da exceção traduzida pelo Spring, trata a {@link OptimisticLockException}
+ * do JPA: um flush fora de um repositório (por exemplo, no BEFORE_COMMIT)
+ * não passa pela tradução de exceções.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class OptimisticRetryAspect {
+
+    private final MeterRegistry meterRegistry;
+    private final int maxAttempts;
+    private final long initialBackoffMillis;
+    private final long maxBackoffMillis;
+
+    public OptimisticRetryAspect(
+            MeterRegistry meterRegistry,
+            @Value("${cqrs.command.retry.max-attempts:3}") int maxAttempts,
+            @Value("${cqrs.command.retry.initial-backoff:20ms}") Duration initialBackoff,
+            @Value("${cqrs.command.retry.max-backoff:200ms}") Duration maxBackoff
+    ) {
+        this.meterRegistry = meterRegistry;
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.initialBackoffMillis = initialBackoff.toMillis();
+        this.maxBackoffMillis = maxBackoff.toMillis();
+    }
+
+    @Around("@annotation(com.poc.cqrs.command.retry.RetryOnConflict)")
+    public Object retry(ProceedingJoinPoint joinPoint) throws Throwable {
+        String command = joinPoint.getSignature().getName();
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return joinPoint.proceed();
+            } catch (OptimisticLockingFailureException | OptimisticLockException ex) {
+                meterRegistry.counter("cqrs.command.conflicts", "command", command).increment();
+                if (attempt >= maxAttempts) {
+                    meterRegistry.counter("cqrs.command.retries.exhausted", "command", command).increment();
+                    throw ex;
+                }
+                meterRegistry.counter("cqrs.command.retries", "command", command).increment();
+                backoff(attempt, ex);
+            }
+        }
+    }
+
+    private void backoff(int attempt, RuntimeException cause) {
+        long ceiling = Math.min(maxBackoffMillis, initialBackoffMillis << Math.min(attempt - 1, 20));
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(ceiling + 1));
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw cause;
+        }
+    }
+}
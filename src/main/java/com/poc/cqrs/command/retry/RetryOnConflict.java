@@ -0,0 +1,15 @@
+package com.poc.cqrs.command.retry;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Reexecuta o command (com uma transação nova) quando outro command altera
+ * o mesmo aggregate primeiro. Política configurada em {@code cqrs.command.retry}.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface RetryOnConflict {
+}
@@ -0,0 +1,196 @@
+package com.poc.cqrs.command.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Agenda o refresh da Materialized View fora da thread da requisição.
+ * Rajadas de alterações são agrupadas: no máximo um refresh em execução
+ * e um pendente. O refresh pendente espera um intervalo de silêncio
+ * (debounce), mas nunca mais que o max-staleness desde a primeira alteração.
+ */
+@Component
+@ConditionalOnProperty(name = "cqrs.read-model.mode", havingValue = "materialized-view", matchIfMissing = true)
+public class MaterializedViewRefreshScheduler {
+
+    private static final Logger log = LoggerFactory.getLogger(MaterializedViewRefreshScheduler.class);
+
+    private static final String REFRESH_SQL = "REFRESH MATERIALIZED VIEW CONCURRENTLY order_summary_mview";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final long debounceNanos;
+    private final long maxStalenessNanos;
+    private final ScheduledExecutorService executor;
+    private final Timer refreshDuration;
+    private final Counter refreshFailures;
+    private volatile long lastSuccessNanos;
+    // Início do último refresh concluído: todo commit anterior a ele está na view
+    private volatile LocalDateTime lastRefreshAsOf = LocalDateTime.ofEpochSecond(0, 0, ZoneOffset.UTC);
+
+    // Estado protegido por "this"
+    private long pendingSince;
+    private Set<UUID> pendingOrderIds = new HashSet<>();
+    private boolean running;
+    private ScheduledFuture<?> scheduled;
+
+    public MaterializedViewRefreshScheduler(
+            JdbcTemplate jdbcTemplate,
+            ApplicationEventPublisher eventPublisher,
+            MeterRegistry meterRegistry,
+            @Value("${cqrs.read-model.refresh.debounce:100ms}") Duration debounce,
+            @Value("${cqrs.read-model.refresh.max-staleness:1s}") Duration maxStaleness
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.eventPublisher = eventPublisher;
+        this.debounceNanos = debounce.toNanos();
+        this.maxStalenessNanos = maxStaleness.toNanos();
+        this.executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            var thread = new Thread(r, "mview-refresher");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        this.lastSuccessNanos = System.nanoTime();
+        this.refreshDuration = Timer.builder("cqrs.read-model.refresh.duration")
+                .description("Duração do REFRESH da Materialized View (conexão ocupada)")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.refreshFailures = Counter.builder("cqrs.read-model.refresh.failures")
+                .description("Refreshes da Materialized View que falharam")
+                .register(meterRegistry);
+        Gauge.builder("cqrs.read-model.refresh.pending", this, MaterializedViewRefreshScheduler::pendingCount)
+                .description("Pedidos alterados aguardando o próximo refresh")
+                .register(meterRegistry);
+        Gauge.builder("cqrs.read-model.refresh.staleness", this,
+                        scheduler -> (System.nanoTime() - scheduler.lastSuccessNanos) / 1e9)
+                .description("Segundos desde o último refresh concluído com sucesso")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Registra que a view está desatualizada. Chamadas repetidas antes do
+     * refresh começar são agrupadas em um único refresh.
+     */
+    public synchronized void requestRefresh(Collection<UUID> orderIds) {
+        pendingOrderIds.addAll(orderIds);
+        if (pendingSince == 0) {
+            pendingSince = System.nanoTime();
+        }
+        if (!running) {
+            scheduleNext();
+        }
+    }
+
+    /**
+     * A view pode não refletir commits anteriores a uma queda do nó; um
+     * refresh na inicialização torna o {@link #dataAsOf()} confiável.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void refreshOnStartup() {
+        requestRefresh(List.of());
+    }
+
+    /**
+     * Executa o refresh na thread (e transação) de quem chamou. Usado pelo
+     * projetor do outbox, que já processa as alterações em lote.
+     */
+    public void refreshNow() {
+        LocalDateTime startedAt = LocalDateTime.now();
+        refreshDuration.record(() -> jdbcTemplate.execute(REFRESH_SQL));
+        lastSuccessNanos = System.nanoTime();
+        lastRefreshAsOf = startedAt;
+    }
+
+    /**
+     * Momento até o qual os commits estão visíveis na view: o início do último
+     * refresh concluído neste nó. Não usa "agora" mesmo sem alterações
+     * pendentes aqui, porque commits feitos em outros nós não são conhecidos
+     * (com o outbox habilitado, use os eventos pendentes).
+     */
+    public LocalDateTime dataAsOf() {
+        return lastRefreshAsOf;
+    }
+
+    private synchronized int pendingCount() {
+        return pendingOrderIds.size();
+    }
+
+    private void scheduleNext() {
+        long now = System.nanoTime();
+        long deadline = Math.min(now + debounceNanos, pendingSince + maxStalenessNanos);
+        if (scheduled != null) {
+            scheduled.cancel(false);
+        }
+        scheduled = executor.schedule(this::runRefresh, Math.max(0, deadline - now), TimeUnit.NANOSECONDS);
+    }
+
+    private void runRefresh() {
+        Set<UUID> orderIds;
+        synchronized (this) {
+            if (running || pendingSince == 0) {
+                return;
+            }
+            running = true;
+            pendingSince = 0;
+            orderIds = pendingOrderIds;
+            pendingOrderIds = new HashSet<>();
+            scheduled = null;
+        }
+
+        boolean success = false;
+        try {
+            refreshNow();
+            success = true;
+            eventPublisher.publishEvent(new OrderSummaryRefreshedEvent(orderIds));
+        } catch (RuntimeException ex) {
+            refreshFailures.increment();
+            log.warn("Falha ao atualizar order_summary_mview, nova tentativa será agendada", ex);
+        } finally {
+            synchronized (this) {
+                running = false;
+                if (!success) {
+                    // Em caso de falha, tenta de novo após o max-staleness
+                    pendingOrderIds.addAll(orderIds);
+                    if (pendingSince == 0) {
+                        pendingSince = System.nanoTime();
+                    }
+                    scheduled = executor.schedule(this::runRefresh, maxStalenessNanos, TimeUnit.NANOSECONDS);
+                } else if (pendingSince != 0) {
+                    scheduleNext();
+                }
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -1,37 +1,85 @@
 package com.poc.cqrs.command.service;
 
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.context.ApplicationEventPublisher;
-import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Component;
-import org.springframework.transaction.annotation.Propagation;
-import org.springframework.transaction.annotation.Transactional;
 import org.springframework.transaction.event.TransactionPhase;
 import org.springframework.transaction.event.TransactionalEventListener;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Ponto único de propagação das alterações do lado de escrita para o read model.
+ * Conforme {@code cqrs.read-model.mode}, apenas um dos destinos está presente:
+ * o scheduler da Materialized View ou a projeção incremental. Com o outbox
+ * habilitado, as alterações são apenas gravadas em order_events e o
+ * {@link OutboxProjector} atualiza o read model em background.
+ */
 @Component
 public class MaterializedViewRefresher {
 
     private final ApplicationEventPublisher eventPublisher;
-    private final JdbcTemplate jdbcTemplate;
+    private final ObjectProvider<MaterializedViewRefreshScheduler> refreshScheduler;
+    private final ObjectProvider<OrderSummaryProjector> summaryProjector;
+    private final ObjectProvider<OrderEventOutbox> eventOutbox;
 
     public MaterializedViewRefresher(
             ApplicationEventPublisher eventPublisher,
-            JdbcTemplate jdbcTemplate
+            ObjectProvider<MaterializedViewRefreshScheduler> refreshScheduler,
+            ObjectProvider<OrderSummaryProjector> summaryProjector,
+            ObjectProvider<OrderEventOutbox> eventOutbox
     ) {
         this.eventPublisher = eventPublisher;
-        this.jdbcTemplate = jdbcTemplate;
+        this.refreshScheduler = refreshScheduler;
+        this.summaryProjector = summaryProjector;
+        this.eventOutbox = eventOutbox;
+    }
+
+    public void refreshOrderSummaryAfterCommit(UUID... orderIds) {
+        refreshOrderSummaryAfterCommit(List.of(orderIds));
     }
 
-    public void refreshOrderSummaryAfterCommit() {
-        eventPublisher.publishEvent(new OrderDataChangedEvent());
+    public void refreshOrderSummaryAfterCommit(Collection<UUID> orderIds) {
+        eventPublisher.publishEvent(new OrderDataChangedEvent(Set.copyOf(orderIds)));
     }
 
+    /**
+     * Outbox: o evento é gravado na mesma transação do command.
+     * Modo incremental: o upsert das linhas alteradas entra na mesma transação
+     * do command, então o read model nunca fica atrás da escrita.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void projectBeforeCommit(OrderDataChangedEvent event) {
+        var outbox = eventOutbox.getIfAvailable();
+        if (outbox != null) {
+            outbox.append(event.orderIds());
+            return;
+        }
+        summaryProjector.ifAvailable(projector -> projector.project(event.orderIds()));
+    }
+
+    /**
+     * Modo Materialized View: não executa o refresh aqui, apenas sinaliza o
+     * scheduler, que agrupa rajadas de commits e roda o refresh fora da
+     * thread da requisição.
+     */
     @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
-    @Transactional(propagation = Propagation.REQUIRES_NEW)
     public void onOrderDataChanged(OrderDataChangedEvent event) {
-        jdbcTemplate.execute("REFRESH MATERIALIZED VIEW CONCURRENTLY order_summary_mview");
+        if (eventOutbox.getIfAvailable() != null) {
+            return;
+        }
+        var scheduler = refreshScheduler.getIfAvailable();
+        if (scheduler != null) {
+            scheduler.requestRefresh(event.orderIds());
+        } else {
+            // Modo incremental: a projeção foi gravada junto com o commit
+            eventPublisher.publishEvent(new OrderSummaryRefreshedEvent(event.orderIds()));
+        }
     }
-    
-    public static class OrderDataChangedEvent {
+
+    public record OrderDataChangedEvent(Set<UUID> orderIds) {
     }
 }
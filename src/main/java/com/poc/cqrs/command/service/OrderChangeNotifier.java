@@ -0,0 +1,99 @@
+package com.poc.cqrs.command.service;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.StringJoiner;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Publica no canal {@value #CHANNEL} os ids cujo read model acabou de ser
+ * atualizado, para que todos os nós repassem as linhas aos streams SSE.
+ * O NOTIFY só é emitido depois que a alteração está visível no read model,
+ * então quem recebe o aviso já lê a versão nova.
+ * <p>
+ * O NOTIFY roda numa thread própria: o evento chega no AFTER_COMMIT da
+ * requisição do command, que não deve abrir uma segunda transação nem esperar
+ * pelo banco só para avisar os streams.
+ */
+@Component
+@ConditionalOnProperty(name = "cqrs.query.stream.enabled", havingValue = "true", matchIfMissing = true)
+public class OrderChangeNotifier {
+
+    public static final String CHANNEL = "order_summary_changed";
+
+    private static final Logger log = LoggerFactory.getLogger(OrderChangeNotifier.class);
+
+    // O payload do NOTIFY é limitado a 8000 bytes: 200 UUIDs (37 bytes cada) cabem com folga
+    private static final int IDS_PER_NOTIFY = 200;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    // Uma única thread: os avisos saem na ordem em que os refreshes terminaram
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(
+            Thread.ofPlatform().name("order-change-notifier").daemon().factory());
+
+    public OrderChangeNotifier(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    @EventListener
+    public void onOrderSummaryRefreshed(OrderSummaryRefreshedEvent event) {
+        if (event.orderIds().isEmpty()) {
+            return;
+        }
+        var payloads = payloads(event.orderIds());
+        try {
+            executor.execute(() -> publish(payloads, event.orderIds().size()));
+        } catch (RejectedExecutionException ex) {
+            log.debug("Aplicação encerrando, aviso de {} pedido(s) descartado", event.orderIds().size());
+        }
+    }
+
+    private void publish(List<String> payloads, int orderCount) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> payloads.forEach(payload ->
+                    jdbcTemplate.query("SELECT pg_notify(?, ?)", rs -> {
+                    }, CHANNEL, payload)));
+        } catch (RuntimeException ex) {
+            // O aviso é best-effort: uma falha aqui não pode desfazer nem repetir o refresh
+            log.warn("Falha ao notificar {} pedido(s) alterado(s) no canal {}", orderCount, CHANNEL, ex);
+        }
+    }
+
+    private static List<String> payloads(Iterable<UUID> orderIds) {
+        List<String> payloads = new ArrayList<>();
+        var payload = new StringJoiner(",");
+        int count = 0;
+        for (UUID orderId : orderIds) {
+            payload.add(orderId.toString());
+            if (++count == IDS_PER_NOTIFY) {
+                payloads.add(payload.toString());
+                payload = new StringJoiner(",");
+                count = 0;
+            }
+        }
+        if (count > 0) {
+            payloads.add(payload.toString());
+        }
+        return payloads;
+    }
+}
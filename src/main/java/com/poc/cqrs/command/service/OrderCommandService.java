@@ -1,73 +1,231 @@
 package com.poc.cqrs.command.service;
 
+import com.poc.cqrs.command.dto.BatchCreateOrdersResult;
+import com.poc.cqrs.command.dto.BulkUpdateOrderStatusCommand;
+import com.poc.cqrs.command.dto.BulkUpdateOrderStatusResult;
 import com.poc.cqrs.command.dto.CreateOrderCommand;
 import com.poc.cqrs.command.dto.RemoveOrderItemCommand;
 import com.poc.cqrs.command.dto.UpdateOrderStatusCommand;
 import com.poc.cqrs.command.entity.Order;
 import com.poc.cqrs.command.entity.OrderItem;
+import com.poc.cqrs.command.enums.OrderStatus;
+import com.poc.cqrs.command.id.IdGenerator;
+import com.poc.cqrs.command.repository.OrderJdbcRepository;
 import com.poc.cqrs.command.repository.OrderRepository;
+import com.poc.cqrs.command.retry.RetryOnConflict;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
 @Service
 public class OrderCommandService {
 
     private final OrderRepository orderRepository;
+    private final OrderJdbcRepository orderJdbcRepository;
     private final MaterializedViewRefresher viewRefresher;
+    private final IdGenerator idGenerator;
+    private final EntityManager entityManager;
+    private final Validator validator;
+    private final int maxBatchSize;
+    private final int jdbcBatchSize;
 
     public OrderCommandService(
             OrderRepository orderRepository,
-            MaterializedViewRefresher viewRefresher
+            OrderJdbcRepository orderJdbcRepository,
+            MaterializedViewRefresher viewRefresher,
+            IdGenerator idGenerator,
+            EntityManager entityManager,
+            Validator validator,
+            @Value("${cqrs.command.batch.max-size:5000}") int maxBatchSize,
+            @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}") int jdbcBatchSize
     ) {
         this.orderRepository = orderRepository;
+        this.orderJdbcRepository = orderJdbcRepository;
         this.viewRefresher = viewRefresher;
+        this.idGenerator = idGenerator;
+        this.entityManager = entityManager;
+        this.validator = validator;
+        this.maxBatchSize = maxBatchSize;
+        this.jdbcBatchSize = jdbcBatchSize;
     }
 
+    @Timed(value = "cqrs.command", extraTags = {"command", "createOrder"}, histogram = true)
     @Transactional
     public UUID createOrder(CreateOrderCommand cmd) {
-        var items = cmd.items().stream()
-                .map(i -> OrderItem.create(i.product(), i.quantity(), i.unitPrice()))
-                .toList();
+        var order = toOrder(cmd);
+        orderRepository.save(order);
 
-        if (items.isEmpty()) {
-            throw new IllegalArgumentException("Pedido deve conter ao menos um item.");
+        viewRefresher.refreshOrderSummaryAfterCommit(order.getId());
+
+        return order.getId();
+    }
+
+    /**
+     * Cria vários pedidos em uma única transação. Entradas inválidas são
+     * reportadas individualmente e não impedem as demais. Os inserts saem
+     * em lotes JDBC e o read model é atualizado uma única vez para o lote.
+     */
+    @Timed(value = "cqrs.command", extraTags = {"command", "createOrders"}, histogram = true)
+    @Transactional
+    public BatchCreateOrdersResult createOrders(List<CreateOrderCommand> commands) {
+        if (commands.isEmpty()) {
+            throw new IllegalArgumentException("Lote deve conter ao menos um pedido.");
+        }
+        if (commands.size() > maxBatchSize) {
+            throw new IllegalArgumentException(
+                    "Lote excede o máximo de " + maxBatchSize + " pedidos: " + commands.size());
         }
 
-        var order = Order.create(cmd.customerName(), items);
-        orderRepository.save(order);
+        var results = new ArrayList<BatchCreateOrdersResult.ItemResult>(commands.size());
+        var orders = new ArrayList<Order>(commands.size());
+
+        for (int i = 0; i < commands.size(); i++) {
+            var cmd = commands.get(i);
+            if (cmd == null) {
+                results.add(BatchCreateOrdersResult.ItemResult.failed(i, "Pedido vazio."));
+                continue;
+            }
+            var violations = validator.validate(cmd);
+            if (!violations.isEmpty()) {
+                results.add(BatchCreateOrdersResult.ItemResult.failed(i, describe(violations)));
+                continue;
+            }
+            var order = toOrder(cmd);
+            orders.add(order);
+            results.add(BatchCreateOrdersResult.ItemResult.created(i, order.getId()));
+        }
 
-        viewRefresher.refreshOrderSummaryAfterCommit();
+        // Flush e clear a cada lote JDBC mantêm o contexto de persistência pequeno
+        for (int from = 0; from < orders.size(); from += jdbcBatchSize) {
+            orderRepository.saveAll(orders.subList(from, Math.min(from + jdbcBatchSize, orders.size())));
+            orderRepository.flush();
+            entityManager.clear();
+        }
 
-        return order.getId();
+        if (!orders.isEmpty()) {
+            viewRefresher.refreshOrderSummaryAfterCommit(orders.stream().map(Order::getId).toList());
+        }
+
+        return BatchCreateOrdersResult.of(results);
     }
 
+    @Timed(value = "cqrs.command", extraTags = {"command", "updateOrderStatus"}, histogram = true)
+    @RetryOnConflict
     @Transactional
     public void updateOrderStatus(UpdateOrderStatusCommand cmd) {
         var order = orderRepository.findById(cmd.orderId())
                 .orElseThrow(() -> new IllegalArgumentException("Pedido não encontrado: " + cmd.orderId()));
 
         order.transitionTo(cmd.newStatus());
-        orderRepository.save(order);
+        // O flush pelo repositório traduz o conflito de versão para o retry antes do commit;
+        // no commit, ele sairia do flush do projetor incremental sem tradução
+        orderRepository.saveAndFlush(order);
+
+        viewRefresher.refreshOrderSummaryAfterCommit(cmd.orderId());
+    }
+
+    /**
+     * Aplica a mesma transição a vários pedidos com UPDATEs em conjunto, sem
+     * carregar os aggregates. Pedidos que não podem transicionar são reportados
+     * individualmente e não impedem os demais. O read model é atualizado uma vez.
+     */
+    @Timed(value = "cqrs.command", extraTags = {"command", "bulkUpdateOrderStatus"}, histogram = true)
+    @Transactional
+    public BulkUpdateOrderStatusResult bulkUpdateOrderStatus(BulkUpdateOrderStatusCommand cmd) {
+        boolean byIds = cmd.orderIds() != null && !cmd.orderIds().isEmpty();
+        if (byIds == (cmd.currentStatus() != null)) {
+            throw new IllegalArgumentException("Informe orderIds ou currentStatus (apenas um deles)");
+        }
+
+        OrderStatus target = cmd.newStatus();
+        List<UUID> transitioned;
+        var rejected = new ArrayList<BulkUpdateOrderStatusResult.Rejected>();
+
+        if (byIds) {
+            var orderIds = new LinkedHashSet<>(cmd.orderIds());
+            if (orderIds.size() > maxBatchSize) {
+                throw new IllegalArgumentException(
+                        "Lote excede o máximo de " + maxBatchSize + " pedidos: " + orderIds.size());
+            }
+
+            transitioned = orderJdbcRepository.transitionStatus(orderIds, OrderStatus.sourcesOf(target), target);
+
+            orderIds.removeAll(Set.copyOf(transitioned));
+            if (!orderIds.isEmpty()) {
+                var statuses = orderJdbcRepository.findStatuses(orderIds);
+                for (UUID orderId : orderIds) {
+                    OrderStatus current = statuses.get(orderId);
+                    String error;
+                    if (current == null) {
+                        error = "Pedido não encontrado: " + orderId;
+                    } else if (current == target) {
+                        error = "Pedido já está no status " + target;
+                    } else {
+                        error = "Transição inválida: " + current + " -> " + target;
+                    }
+                    rejected.add(new BulkUpdateOrderStatusResult.Rejected(orderId, error));
+                }
+            }
+        } else {
+            OrderStatus current = cmd.currentStatus();
+            if (!current.canTransitionTo(target)) {
+                throw new IllegalStateException("Transição inválida: " + current + " -> " + target);
+            }
+            transitioned = orderJdbcRepository.transitionAllWithStatus(current, target);
+        }
+
+        if (!transitioned.isEmpty()) {
+            viewRefresher.refreshOrderSummaryAfterCommit(transitioned);
+        }
 
-        viewRefresher.refreshOrderSummaryAfterCommit();
+        return BulkUpdateOrderStatusResult.of(transitioned, rejected);
     }
 
+    /**
+     * Remove o item sem carregar o aggregate: apaga a linha e aplica só a
+     * diferença nos totais do pedido, com custo independente do número de itens.
+     */
+    @Timed(value = "cqrs.command", extraTags = {"command", "removeOrderItem"}, histogram = true)
     @Transactional
     public void removeOrderItem(RemoveOrderItemCommand cmd) {
-        var order = orderRepository.findById(cmd.orderId())
-                .orElseThrow(() -> new IllegalArgumentException("Pedido não encontrado: " + cmd.orderId()));
+        if (!orderJdbcRepository.removeItem(cmd.orderId(), cmd.itemId())) {
+            if (!orderJdbcRepository.exists(cmd.orderId())) {
+                throw new IllegalArgumentException("Pedido não encontrado: " + cmd.orderId());
+            }
+            return;
+        }
+
+        viewRefresher.refreshOrderSummaryAfterCommit(cmd.orderId());
+    }
 
-        order.removeItem(cmd.itemId());
+    private Order toOrder(CreateOrderCommand cmd) {
+        var orderId = idGenerator.next();
+        var items = cmd.items().stream()
+                .map(i -> OrderItem.create(idGenerator.next(), i.product(), i.quantity(), i.unitPrice()))
+                .toList();
 
-        if (!order.hasItems()) {
-            throw new IllegalStateException(
-                    "Pedido ficaria sem itens. Cancele o pedido ao invés de remover o último item.");
+        if (items.isEmpty()) {
+            throw new IllegalArgumentException("Pedido deve conter ao menos um item.");
         }
 
-        orderRepository.save(order);
+        return Order.create(orderId, cmd.customerName(), items);
+    }
 
-        viewRefresher.refreshOrderSummaryAfterCommit();
+    private static String describe(Set<ConstraintViolation<CreateOrderCommand>> violations) {
+        return violations.stream()
+                .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                .sorted()
+                .collect(Collectors.joining("; "));
     }
 }
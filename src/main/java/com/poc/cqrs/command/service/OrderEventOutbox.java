@@ -0,0 +1,55 @@
+package com.poc.cqrs.command.service;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Grava os pedidos alterados na tabela order_events. Deve ser chamado dentro
+ * da transação do command, para que evento e escrita sejam atômicos.
+ */
+@Component
+@ConditionalOnProperty(name = "cqrs.read-model.outbox.enabled", havingValue = "true")
+public class OrderEventOutbox {
+
+    private static final String INSERT_SQL = """
+            INSERT INTO order_events (order_id)
+            SELECT UNNEST(?::uuid[])
+            """;
+
+    private static final String OLDEST_PENDING_AGE_SQL = """
+            SELECT (EXTRACT(EPOCH FROM now() - created_at) * 1000)::bigint
+            FROM order_events
+            ORDER BY id
+            LIMIT 1
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public OrderEventOutbox(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public void append(Collection<UUID> orderIds) {
+        if (orderIds.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.update(INSERT_SQL, ps ->
+                ps.setArray(1, ps.getConnection().createArrayOf("uuid", orderIds.toArray())));
+    }
+
+    /**
+     * Idade do evento mais antigo ainda não projetado; vazio se o read model
+     * está em dia com todos os commits, de qualquer nó. Calculada no banco,
+     * com o mesmo relógio que gravou o created_at.
+     */
+    public Optional<Duration> oldestPendingAge() {
+        return jdbcTemplate.query(OLDEST_PENDING_AGE_SQL,
+                (rs, rowNum) -> Duration.ofMillis(Math.max(0, rs.getLong(1)))).stream().findFirst();
+    }
+}
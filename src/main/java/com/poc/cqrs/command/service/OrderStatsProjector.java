@@ -0,0 +1,209 @@
+package com.poc.cqrs.command.service;
+
+import com.poc.cqrs.command.service.MaterializedViewRefresher.OrderDataChangedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Mantém o rollup order_stats_daily. Um pedido só afeta o dia em que foi
+ * criado; cada alteração subtrai do rollup a contribuição antiga do pedido
+ * (guardada em order_stats_applied) e soma a nova.
+ * <p>
+ * Os commands não escrevem no rollup: linhas de um mesmo dia seriam disputadas
+ * por todos os commands do dia. As alterações são acumuladas após o commit e
+ * aplicadas em lote periodicamente; com o outbox habilitado, o
+ * {@link OutboxProjector} chama {@link #recompute} no próprio lote.
+ * <p>
+ * Sem o outbox, as alterações pendentes só existem em memória e se perdem se o
+ * processo cair antes do flush. Por isso, ao subir, os pedidos cuja
+ * contribuição aplicada difere da atual são reaplicados.
+ */
+@Component
+public class OrderStatsProjector {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderStatsProjector.class);
+
+    private static final String DAYS_SQL = """
+            SELECT DISTINCT CAST(created_at AS DATE)
+            FROM orders
+            WHERE id = ANY (?)
+            """;
+
+    // Serializa aplicações concorrentes do mesmo dia (outros nós ou lotes): o dia
+    // de um pedido não muda, então duas aplicações do mesmo pedido nunca se cruzam
+    private static final String LOCK_DAYS_SQL = """
+            SELECT pg_advisory_xact_lock(4177, d - DATE '2000-01-01')
+            FROM UNNEST(CAST(? AS DATE[])) AS d
+            ORDER BY d
+            """;
+
+    // Soma a contribuição atual de cada pedido e subtrai a já aplicada (order_stats_applied).
+    // Todos os CTEs leem o mesmo snapshot, então "prev" ainda é o estado anterior ao upsert.
+    private static final String APPLY_DELTAS_SQL = """
+            WITH cur AS (SELECT id, CAST(created_at AS DATE) AS day, status, subtotal, total_amount
+                         FROM orders
+                         WHERE id = ANY (?)),
+                 prev AS (SELECT order_id, day, status, subtotal, total_amount
+                          FROM order_stats_applied
+                          WHERE order_id = ANY (?)),
+                 deltas AS (SELECT day, status, 1 AS order_count, subtotal, total_amount
+                            FROM cur
+                            UNION ALL
+                            SELECT day, status, -1, -subtotal, -total_amount
+                            FROM prev),
+                 applied AS (
+                     INSERT INTO order_stats_applied (order_id, day, status, subtotal, total_amount)
+                         SELECT id, day, status, subtotal, total_amount
+                         FROM cur
+                         ON CONFLICT (order_id) DO UPDATE
+                             SET day          = EXCLUDED.day,
+                                 status       = EXCLUDED.status,
+                                 subtotal     = EXCLUDED.subtotal,
+                                 total_amount = EXCLUDED.total_amount)
+            INSERT INTO order_stats_daily (day, status, order_count, gross, net, discount_total, updated_at)
+            SELECT day,
+                   status,
+                   SUM(order_count),
+                   SUM(subtotal),
+                   SUM(total_amount),
+                   SUM(subtotal - total_amount),
+                   NOW()
+            FROM deltas
+            GROUP BY day, status
+            HAVING SUM(order_count) <> 0 OR SUM(subtotal) <> 0 OR SUM(total_amount) <> 0
+            ON CONFLICT (day, status) DO UPDATE
+                SET order_count    = order_stats_daily.order_count + EXCLUDED.order_count,
+                    gross          = order_stats_daily.gross + EXCLUDED.gross,
+                    net            = order_stats_daily.net + EXCLUDED.net,
+                    discount_total = order_stats_daily.discount_total + EXCLUDED.discount_total,
+                    updated_at     = EXCLUDED.updated_at
+            """;
+
+    // Pedidos sem contribuição aplicada ou com uma diferente da atual
+    private static final String STALE_IDS_SQL = """
+            SELECT o.id
+            FROM orders o
+                     LEFT JOIN order_stats_applied a ON a.order_id = o.id
+            WHERE o.id > ?
+              AND (a.order_id IS NULL
+                OR a.day IS DISTINCT FROM CAST(o.created_at AS DATE)
+                OR a.status IS DISTINCT FROM o.status
+                OR a.subtotal IS DISTINCT FROM o.subtotal
+                OR a.total_amount IS DISTINCT FROM o.total_amount)
+            ORDER BY o.id
+            LIMIT ?
+            """;
+
+    private static final int RECONCILE_BATCH_SIZE = 5000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectProvider<OrderEventOutbox> eventOutbox;
+    private final Set<UUID> dirtyOrderIds = ConcurrentHashMap.newKeySet();
+
+    public OrderStatsProjector(
+            JdbcTemplate jdbcTemplate,
+            TransactionTemplate transactionTemplate,
+            ObjectProvider<OrderEventOutbox> eventOutbox
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.eventOutbox = eventOutbox;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onOrderDataChanged(OrderDataChangedEvent event) {
+        if (eventOutbox.getIfAvailable() != null) {
+            return;
+        }
+        dirtyOrderIds.addAll(event.orderIds());
+    }
+
+    @Scheduled(fixedDelayString = "${cqrs.read-model.stats.flush-interval:PT1S}")
+    public void flush() {
+        if (dirtyOrderIds.isEmpty()) {
+            return;
+        }
+        List<UUID> orderIds = List.copyOf(dirtyOrderIds);
+        dirtyOrderIds.removeAll(orderIds);
+        try {
+            transactionTemplate.executeWithoutResult(status -> recompute(orderIds));
+        } catch (RuntimeException ex) {
+            dirtyOrderIds.addAll(orderIds);
+            log.warn("Falha ao atualizar order_stats_daily, nova tentativa no próximo ciclo", ex);
+        }
+    }
+
+    /**
+     * Reaplica, em lotes por id, os pedidos cujo estado aplicado ao rollup não
+     * é o atual. Como cada aplicação é relativa ao que já foi aplicado, rodar
+     * junto com os commands e com o flush é seguro.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconcile() {
+        UUID after = new UUID(0, 0);
+        long total = 0;
+        List<UUID> batch;
+        do {
+            UUID from = after;
+            batch = transactionTemplate.execute(status -> {
+                List<UUID> ids = jdbcTemplate.queryForList(STALE_IDS_SQL, UUID.class, from, RECONCILE_BATCH_SIZE);
+                recompute(ids);
+                return ids;
+            });
+            if (batch == null || batch.isEmpty()) {
+                break;
+            }
+            total += batch.size();
+            after = batch.get(batch.size() - 1);
+        } while (batch.size() == RECONCILE_BATCH_SIZE);
+
+        if (total > 0) {
+            log.info("order_stats_daily reconciliada: {} pedidos reaplicados", total);
+        }
+    }
+
+    /**
+     * Aplica ao rollup a diferença de cada pedido informado desde a última
+     * aplicação. Custa O(pedidos informados), não O(pedidos do dia).
+     * Deve rodar dentro de uma transação.
+     */
+    public void recompute(Collection<UUID> orderIds) {
+        if (orderIds.isEmpty()) {
+            return;
+        }
+        List<LocalDate> days = jdbcTemplate.query(DAYS_SQL,
+                ps -> ps.setArray(1, ps.getConnection().createArrayOf("uuid", orderIds.toArray())),
+                (rs, rowNum) -> rs.getObject(1, LocalDate.class));
+        if (days.isEmpty()) {
+            return;
+        }
+
+        Object[] sqlDays = days.stream().map(Date::valueOf).toArray();
+        jdbcTemplate.query(LOCK_DAYS_SQL,
+                ps -> ps.setArray(1, ps.getConnection().createArrayOf("date", sqlDays)),
+                rs -> {});
+        Object[] ids = orderIds.toArray();
+        jdbcTemplate.update(APPLY_DELTAS_SQL, ps -> {
+            ps.setArray(1, ps.getConnection().createArrayOf("uuid", ids));
+            ps.setArray(2, ps.getConnection().createArrayOf("uuid", ids));
+        });
+    }
+}
@@ -0,0 +1,127 @@
+package com.poc.cqrs.command.service;
+
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Projeção incremental: recalcula apenas as linhas dos pedidos alterados
+ * na tabela order_summary, dentro da mesma transação do command.
+ * <p>
+ * Enquanto outro modo está ativo, nada mantém a order_summary. Por isso, ao
+ * subir neste modo, os pedidos cuja linha falta ou tem outro updated_at são
+ * reprojetados antes de qualquer leitura confiar na tabela.
+ */
+@Component
+@ConditionalOnProperty(name = "cqrs.read-model.mode", havingValue = "incremental")
+public class OrderSummaryProjector {
+
+    private static final String UPSERT_SQL = """
+            INSERT INTO order_summary (order_id, customer_name, status, discount, total_items,
+                                       subtotal, total_with_discount, created_at, updated_at)
+            SELECT o.id,
+                   o.customer_name,
+                   o.status,
+                   o.discount,
+                   COUNT(oi.id),
+                   COALESCE(SUM(oi.quantity * oi.unit_price), 0),
+                   o.total_amount,
+                   o.created_at,
+                   o.updated_at
+            FROM orders o
+                     LEFT JOIN order_items oi ON oi.order_id = o.id
+            WHERE o.id = ANY (?)
+            GROUP BY o.id
+            ON CONFLICT (order_id) DO UPDATE
+                SET customer_name       = EXCLUDED.customer_name,
+                    status              = EXCLUDED.status,
+                    discount            = EXCLUDED.discount,
+                    total_items         = EXCLUDED.total_items,
+                    subtotal            = EXCLUDED.subtotal,
+                    total_with_discount = EXCLUDED.total_with_discount,
+                    updated_at          = EXCLUDED.updated_at
+            """;
+
+    // FOR SHARE espera commands em andamento sobre esses pedidos e bloqueia os
+    // próximos até o upsert, que então lê a versão mais recente
+    private static final String STALE_IDS_SQL = """
+            SELECT o.id
+            FROM orders o
+                     LEFT JOIN order_summary s ON s.order_id = o.id
+            WHERE o.id > ?
+              AND (s.order_id IS NULL OR s.updated_at IS DISTINCT FROM o.updated_at)
+            ORDER BY o.id
+            LIMIT ?
+            FOR SHARE OF o
+            """;
+
+    private static final int RESYNC_BATCH_SIZE = 5000;
+
+    private static final Logger log = LoggerFactory.getLogger(OrderSummaryProjector.class);
+
+    private final EntityManager entityManager;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    public OrderSummaryProjector(EntityManager entityManager, JdbcTemplate jdbcTemplate,
+                                 TransactionTemplate transactionTemplate) {
+        this.entityManager = entityManager;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    @Timed(value = "cqrs.read-model.projection", histogram = true)
+    public void project(Collection<UUID> orderIds) {
+        if (orderIds.isEmpty()) {
+            return;
+        }
+        // Garante que o SQL enxergue as alterações ainda pendentes no contexto JPA
+        entityManager.flush();
+        upsert(orderIds);
+    }
+
+    /**
+     * Alinha a order_summary com as tabelas de escrita, em lotes por ordem de id.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void resync() {
+        UUID after = new UUID(0, 0);
+        long total = 0;
+        List<UUID> batch;
+        do {
+            UUID from = after;
+            batch = transactionTemplate.execute(status -> {
+                List<UUID> ids = jdbcTemplate.queryForList(STALE_IDS_SQL, UUID.class, from, RESYNC_BATCH_SIZE);
+                if (!ids.isEmpty()) {
+                    upsert(ids);
+                }
+                return ids;
+            });
+            if (batch == null || batch.isEmpty()) {
+                break;
+            }
+            total += batch.size();
+            after = batch.get(batch.size() - 1);
+        } while (batch.size() == RESYNC_BATCH_SIZE);
+
+        if (total > 0) {
+            log.info("order_summary ressincronizada: {} pedidos reprojetados", total);
+        }
+    }
+
+    private void upsert(Collection<UUID> orderIds) {
+        jdbcTemplate.update(UPSERT_SQL, ps ->
+                ps.setArray(1, ps.getConnection().createArrayOf("uuid", orderIds.toArray())));
+    }
+}
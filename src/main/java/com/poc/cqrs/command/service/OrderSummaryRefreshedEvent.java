@@ -0,0 +1,12 @@
+package com.poc.cqrs.command.service;
+
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Publicado quando as alterações dos pedidos já estão visíveis no read model
+ * (após o refresh da Materialized View, o lote do outbox ou o commit da
+ * projeção incremental).
+ */
+public record OrderSummaryRefreshedEvent(Set<UUID> orderIds) {
+}
@@ -0,0 +1,128 @@
+package com.poc.cqrs.command.service;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Consome a tabela order_events em lotes e atualiza o read model ativo.
+ * O {@code FOR UPDATE SKIP LOCKED} permite que vários nós dividam o trabalho
+ * sem processar o mesmo evento duas vezes. Os eventos só são removidos
+ * depois que o read model foi atualizado, na mesma transação.
+ */
+@Component
+@ConditionalOnProperty(name = "cqrs.read-model.outbox.enabled", havingValue = "true")
+public class OutboxProjector {
+
+    // Idade calculada no banco, com o mesmo relógio do created_at
+    private static final String CLAIM_SQL = """
+            SELECT id, order_id, (EXTRACT(EPOCH FROM clock_timestamp() - created_at) * 1000)::bigint AS age_ms
+            FROM order_events
+            ORDER BY id
+            LIMIT ?
+            FOR UPDATE SKIP LOCKED
+            """;
+
+    private static final String DELETE_SQL = "DELETE FROM order_events WHERE id = ANY (?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectProvider<OrderSummaryProjector> summaryProjector;
+    private final ObjectProvider<MaterializedViewRefreshScheduler> refreshScheduler;
+    private final OrderStatsProjector statsProjector;
+    private final int batchSize;
+    private final DistributionSummary batchSizeSummary;
+    private final Timer projectionLag;
+
+    public OutboxProjector(
+            JdbcTemplate jdbcTemplate,
+            TransactionTemplate transactionTemplate,
+            ApplicationEventPublisher eventPublisher,
+            ObjectProvider<OrderSummaryProjector> summaryProjector,
+            ObjectProvider<MaterializedViewRefreshScheduler> refreshScheduler,
+            OrderStatsProjector statsProjector,
+            MeterRegistry meterRegistry,
+            @Value("${cqrs.read-model.outbox.batch-size:500}") int batchSize
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.eventPublisher = eventPublisher;
+        this.summaryProjector = summaryProjector;
+        this.refreshScheduler = refreshScheduler;
+        this.statsProjector = statsProjector;
+        this.batchSize = batchSize;
+        this.batchSizeSummary = DistributionSummary.builder("cqrs.outbox.batch.size")
+                .description("Eventos processados por lote do outbox")
+                .register(meterRegistry);
+        this.projectionLag = Timer.builder("cqrs.outbox.projection.lag")
+                .description("Tempo entre a gravação do evento mais antigo do lote e sua projeção")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${cqrs.read-model.outbox.poll-interval:PT0.2S}")
+    public void drain() {
+        List<OutboxEvent> events;
+        do {
+            events = transactionTemplate.execute(status -> projectNextBatch());
+            if (events != null && !events.isEmpty()) {
+                var orderIds = events.stream().map(OutboxEvent::orderId).collect(Collectors.toSet());
+                eventPublisher.publishEvent(new OrderSummaryRefreshedEvent(orderIds));
+            }
+        } while (events != null && events.size() == batchSize);
+    }
+
+    private List<OutboxEvent> projectNextBatch() {
+        long claimedAt = System.nanoTime();
+        List<OutboxEvent> events = jdbcTemplate.query(CLAIM_SQL,
+                (rs, rowNum) -> new OutboxEvent(
+                        rs.getLong("id"),
+                        rs.getObject("order_id", UUID.class),
+                        rs.getLong("age_ms")),
+                batchSize);
+        if (events.isEmpty()) {
+            return events;
+        }
+
+        Set<UUID> orderIds = new HashSet<>();
+        for (OutboxEvent event : events) {
+            orderIds.add(event.orderId());
+        }
+
+        var projector = summaryProjector.getIfAvailable();
+        if (projector != null) {
+            projector.project(orderIds);
+        } else {
+            // Um único refresh cobre o lote inteiro
+            refreshScheduler.getObject().refreshNow();
+        }
+        statsProjector.recompute(orderIds);
+
+        Long[] eventIds = events.stream().map(OutboxEvent::id).toArray(Long[]::new);
+        jdbcTemplate.update(DELETE_SQL, ps ->
+                ps.setArray(1, ps.getConnection().createArrayOf("bigint", eventIds)));
+
+        batchSizeSummary.record(events.size());
+        projectionLag.record(Duration.ofMillis(Math.max(0, events.get(0).ageMillis()))
+                .plusNanos(System.nanoTime() - claimedAt));
+        return events;
+    }
+
+    private record OutboxEvent(long id, UUID orderId, long ageMillis) {
+    }
+}
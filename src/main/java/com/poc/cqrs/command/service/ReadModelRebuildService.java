@@ -0,0 +1,456 @@
+package com.poc.cqrs.command.service;
+
+import com.poc.cqrs.command.dto.ReadModelRebuildStatus;
+import com.poc.cqrs.config.ReadModelMode;
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+
+/**
+ * Reconstrói a tabela order_summary sem um único backend fazendo todo o trabalho.
+ * <p>
+ * Os pedidos são divididos em faixas de order_id, carregadas em paralelo numa
+ * tabela sombra por um pool de conexões próprio. Cada faixa é gravada e marcada
+ * como concluída na mesma transação, então um rebuild interrompido é retomado
+ * pelas faixas pendentes. Ao final, os índices são criados em paralelo, os
+ * pedidos alterados durante a carga são reaplicados e a tabela sombra
+ * substitui a atual numa única transação.
+ * <p>
+ * Enquanto roda, o rebuild segura um advisory lock de sessão numa conexão
+ * própria: só um nó executa (ou retoma) um rebuild por vez, e o lock some com
+ * a conexão se o processo cair, liberando a retomada.
+ */
+@Service
+public class ReadModelRebuildService {
+
+    private static final Logger log = LoggerFactory.getLogger(ReadModelRebuildService.class);
+
+    private static final String LIVE_TABLE = "order_summary";
+    private static final String SHADOW_TABLE = "order_summary_rebuild";
+    private static final String SHADOW_SUFFIX = "_rebuild";
+
+    private static final String RUNNING = "RUNNING";
+    private static final String FAILED = "FAILED";
+    private static final String COMPLETED = "COMPLETED";
+
+    private static final long REBUILD_LOCK = 4178;
+
+    private static final String PROJECTION_SQL = """
+            INSERT INTO order_summary_rebuild (order_id, customer_name, status, discount, total_items,
+                                               subtotal, total_with_discount, created_at, updated_at)
+            SELECT o.id,
+                   o.customer_name,
+                   o.status,
+                   o.discount,
+                   COUNT(oi.id),
+                   COALESCE(SUM(oi.quantity * oi.unit_price), 0),
+                   o.total_amount,
+                   o.created_at,
+                   o.updated_at
+            FROM orders o
+                     LEFT JOIN order_items oi ON oi.order_id = o.id
+            """;
+
+    private static final String LOAD_CHUNK_SQL = PROJECTION_SQL + """
+            WHERE o.id BETWEEN ? AND ?
+            GROUP BY o.id
+            """;
+
+    private static final String CATCH_UP_SQL = PROJECTION_SQL + """
+            WHERE o.updated_at >= ?
+            GROUP BY o.id
+            ON CONFLICT (order_id) DO UPDATE
+                SET customer_name       = EXCLUDED.customer_name,
+                    status              = EXCLUDED.status,
+                    discount            = EXCLUDED.discount,
+                    total_items         = EXCLUDED.total_items,
+                    subtotal            = EXCLUDED.subtotal,
+                    total_with_discount = EXCLUDED.total_with_discount,
+                    updated_at          = EXCLUDED.updated_at
+            """;
+
+    // ntile divide os ids em faixas com o mesmo número de pedidos
+    private static final String PLAN_CHUNKS_SQL = """
+            INSERT INTO read_model_rebuild_chunks (rebuild_id, chunk_no, range_start, range_end)
+            SELECT ?, bucket, MIN(id), MAX(id)
+            FROM (SELECT id, ntile(?) OVER (ORDER BY id) AS bucket FROM orders) ranges
+            GROUP BY bucket
+            """;
+
+    private static final String CLAIM_CHUNK_SQL = """
+            SELECT chunk_no, range_start, range_end
+            FROM read_model_rebuild_chunks
+            WHERE rebuild_id = ? AND NOT done
+            ORDER BY chunk_no
+            LIMIT 1
+            FOR UPDATE SKIP LOCKED
+            """;
+
+    private static final String INDEXES_SQL = """
+            SELECT c.relname AS name, pg_get_indexdef(i.indexrelid) AS definition, i.indisprimary AS is_primary
+            FROM pg_index i
+                     JOIN pg_class c ON c.oid = i.indexrelid
+            WHERE i.indrelid = CAST(? AS regclass)
+            """;
+
+    private static final String STATUS_SQL = """
+            SELECT r.id, r.state, r.workers, r.started_at, r.finished_at, r.error,
+                   COUNT(c.chunk_no)                          AS chunks,
+                   COUNT(c.chunk_no) FILTER (WHERE c.done)    AS chunks_done,
+                   COALESCE(SUM(c.row_count), 0)              AS rows_written
+            FROM read_model_rebuilds r
+                     LEFT JOIN read_model_rebuild_chunks c ON c.rebuild_id = r.id
+            WHERE r.id = (SELECT MAX(id) FROM read_model_rebuilds)
+            GROUP BY r.id
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final DataSourceProperties dataSourceProperties;
+    private final ReadModelMode mode;
+    private final int defaultWorkers;
+    private final int maxWorkers;
+    private final int chunkSize;
+    private final Duration catchUpMargin;
+    private final Duration lockTimeout;
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final ExecutorService coordinator = Executors.newSingleThreadExecutor(r -> {
+        var thread = new Thread(r, "read-model-rebuild");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public ReadModelRebuildService(
+            JdbcTemplate jdbcTemplate,
+            TransactionTemplate transactionTemplate,
+            DataSourceProperties dataSourceProperties,
+            @Value("${cqrs.read-model.mode:materialized-view}") ReadModelMode mode,
+            @Value("${cqrs.read-model.rebuild.workers:4}") int defaultWorkers,
+            @Value("${cqrs.read-model.rebuild.max-workers:16}") int maxWorkers,
+            @Value("${cqrs.read-model.rebuild.chunk-size:50000}") int chunkSize,
+            @Value("${cqrs.read-model.rebuild.catch-up-margin:5m}") Duration catchUpMargin,
+            @Value("${cqrs.read-model.rebuild.lock-timeout:10s}") Duration lockTimeout
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.dataSourceProperties = dataSourceProperties;
+        this.mode = mode;
+        this.defaultWorkers = defaultWorkers;
+        this.maxWorkers = maxWorkers;
+        this.chunkSize = chunkSize;
+        this.catchUpMargin = catchUpMargin;
+        this.lockTimeout = lockTimeout;
+    }
+
+    /**
+     * Inicia (ou retoma) o rebuild em background e retorna o estado inicial.
+     *
+     * @param resume retoma o último rebuild não concluído, mantendo as faixas já carregadas
+     */
+    public ReadModelRebuildStatus start(Integer workers, boolean resume) {
+        if (mode != ReadModelMode.INCREMENTAL) {
+            throw new IllegalStateException("O rebuild reconstrói a tabela " + LIVE_TABLE
+                    + " e só se aplica a cqrs.read-model.mode=incremental");
+        }
+        int workerCount = workers != null ? workers : defaultWorkers;
+        if (workerCount < 1 || workerCount > maxWorkers) {
+            throw new IllegalArgumentException("workers deve estar entre 1 e " + maxWorkers);
+        }
+        if (!running.compareAndSet(false, true)) {
+            throw new IllegalStateException("Já existe um rebuild em execução neste nó");
+        }
+
+        Connection ownerLock = null;
+        long rebuildId;
+        try {
+            ownerLock = acquireOwnerLock();
+            rebuildId = resume ? reopen(workerCount) : prepare(workerCount);
+        } catch (RuntimeException ex) {
+            closeQuietly(ownerLock);
+            running.set(false);
+            throw ex;
+        }
+        Connection lock = ownerLock;
+        coordinator.execute(() -> run(rebuildId, workerCount, lock));
+        return status().orElseThrow();
+    }
+
+    public Optional<ReadModelRebuildStatus> status() {
+        return jdbcTemplate.query(STATUS_SQL, (rs, rowNum) -> new ReadModelRebuildStatus(
+                rs.getLong("id"),
+                rs.getString("state"),
+                rs.getInt("workers"),
+                rs.getInt("chunks"),
+                rs.getInt("chunks_done"),
+                rs.getLong("rows_written"),
+                rs.getObject("started_at", LocalDateTime.class),
+                rs.getObject("finished_at", LocalDateTime.class),
+                rs.getString("error"))).stream().findFirst();
+    }
+
+    /**
+     * Abre a conexão que segura o lock do rebuild até o fim da execução.
+     */
+    private Connection acquireOwnerLock() {
+        Connection connection = null;
+        try {
+            connection = DriverManager.getConnection(
+                    dataSourceProperties.determineUrl(),
+                    dataSourceProperties.determineUsername(),
+                    dataSourceProperties.determinePassword());
+            try (var statement = connection.prepareStatement("SELECT pg_try_advisory_lock(?)")) {
+                statement.setLong(1, REBUILD_LOCK);
+                try (var rs = statement.executeQuery()) {
+                    rs.next();
+                    if (!rs.getBoolean(1)) {
+                        throw new IllegalStateException("Já existe um rebuild em execução em outro nó");
+                    }
+                }
+            }
+            return connection;
+        } catch (SQLException ex) {
+            closeQuietly(connection);
+            throw new IllegalStateException("Não foi possível obter o lock do rebuild", ex);
+        } catch (RuntimeException ex) {
+            closeQuietly(connection);
+            throw ex;
+        }
+    }
+
+    private long prepare(int workers) {
+        return transactionTemplate.execute(status -> {
+            var unfinished = jdbcTemplate.queryForList(
+                    "SELECT id FROM read_model_rebuilds WHERE state = ? FOR UPDATE", Long.class, RUNNING);
+            if (!unfinished.isEmpty()) {
+                throw new IllegalStateException("O rebuild " + unfinished.get(0)
+                        + " não foi concluído. Use resume=true para retomá-lo.");
+            }
+
+            jdbcTemplate.execute("DROP TABLE IF EXISTS " + SHADOW_TABLE);
+            // Sem índices durante a carga: são criados uma vez, no final
+            jdbcTemplate.execute("CREATE TABLE " + SHADOW_TABLE + " (LIKE " + LIVE_TABLE + " INCLUDING DEFAULTS)");
+
+            Long id = jdbcTemplate.queryForObject(
+                    "INSERT INTO read_model_rebuilds (state, workers) VALUES (?, ?) RETURNING id",
+                    Long.class, RUNNING, workers);
+            Long orders = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM orders", Long.class);
+            int chunks = (int) Math.max(1, (orders + chunkSize - 1) / chunkSize);
+            jdbcTemplate.update(PLAN_CHUNKS_SQL, id, chunks);
+            log.info("Rebuild {} do read model: {} pedidos em {} faixas, {} workers", id, orders, chunks, workers);
+            return id;
+        });
+    }
+
+    private long reopen(int workers) {
+        return transactionTemplate.execute(status -> {
+            var candidates = jdbcTemplate.queryForList("""
+                    SELECT id FROM read_model_rebuilds
+                    WHERE state IN (?, ?)
+                    ORDER BY id DESC
+                    LIMIT 1
+                    FOR UPDATE
+                    """, Long.class, RUNNING, FAILED);
+            if (candidates.isEmpty()) {
+                throw new IllegalArgumentException("Nenhum rebuild pendente para retomar");
+            }
+            long id = candidates.get(0);
+            jdbcTemplate.update("UPDATE read_model_rebuilds SET state = ?, workers = ?, error = NULL WHERE id = ?",
+                    RUNNING, workers, id);
+            log.info("Retomando o rebuild {} do read model com {} workers", id, workers);
+            return id;
+        });
+    }
+
+    private void run(long rebuildId, int workers, Connection ownerLock) {
+        try {
+            List<IndexDefinition> indexes = liveIndexes();
+            try (HikariDataSource pool = workerPool(workers)) {
+                var workerJdbc = new JdbcTemplate(pool);
+                var workerTransaction = new TransactionTemplate(new DataSourceTransactionManager(pool));
+                ExecutorService executor = Executors.newFixedThreadPool(workers, workerThreads());
+                try {
+                    long start = System.nanoTime();
+                    List<Future<?>> tasks = new ArrayList<>();
+                    for (int i = 0; i < workers; i++) {
+                        tasks.add(executor.submit(() -> loadChunks(rebuildId, workerJdbc, workerTransaction)));
+                    }
+                    awaitAll(tasks);
+                    log.info("Rebuild {}: faixas carregadas em {} s", rebuildId,
+                            Duration.ofNanos(System.nanoTime() - start).toSeconds());
+
+                    tasks.clear();
+                    for (IndexDefinition index : indexes) {
+                        tasks.add(executor.submit(() -> createShadowIndex(workerJdbc, index)));
+                    }
+                    awaitAll(tasks);
+                } finally {
+                    executor.shutdownNow();
+                }
+                workerJdbc.execute("ANALYZE " + SHADOW_TABLE);
+            }
+            swap(rebuildId, indexes);
+        } catch (Exception ex) {
+            log.error("Rebuild {} do read model falhou; pode ser retomado com resume=true", rebuildId, ex);
+            // Só marca como falho o que ainda está rodando: a troca pode já ter sido confirmada
+            jdbcTemplate.update("UPDATE read_model_rebuilds SET state = ?, error = ? WHERE id = ? AND state = ?",
+                    FAILED, String.valueOf(ex.getMessage()), rebuildId, RUNNING);
+        } finally {
+            closeQuietly(ownerLock);
+            running.set(false);
+        }
+    }
+
+    private void loadChunks(long rebuildId, JdbcTemplate jdbc, TransactionTemplate transaction) {
+        boolean claimed;
+        do {
+            claimed = Boolean.TRUE.equals(transaction.execute(status -> {
+                // A faixa e sua marcação são confirmadas juntas: perder as duas num crash só refaz a faixa
+                jdbc.execute("SET LOCAL synchronous_commit = off");
+                var chunks = jdbc.query(CLAIM_CHUNK_SQL, (rs, rowNum) -> new Chunk(
+                        rs.getInt("chunk_no"),
+                        rs.getObject("range_start", UUID.class),
+                        rs.getObject("range_end", UUID.class)), rebuildId);
+                if (chunks.isEmpty()) {
+                    return false;
+                }
+                var chunk = chunks.get(0);
+                int rows = jdbc.update(LOAD_CHUNK_SQL, chunk.start(), chunk.end());
+                jdbc.update("""
+                        UPDATE read_model_rebuild_chunks
+                        SET done = TRUE, row_count = ?, finished_at = NOW()
+                        WHERE rebuild_id = ? AND chunk_no = ?
+                        """, rows, rebuildId, chunk.number());
+                log.debug("Rebuild {}: faixa {} carregada ({} linhas)", rebuildId, chunk.number(), rows);
+                return true;
+            }));
+        } while (claimed);
+    }
+
+    private List<IndexDefinition> liveIndexes() {
+        return jdbcTemplate.query(INDEXES_SQL, (rs, rowNum) -> new IndexDefinition(
+                rs.getString("name"),
+                rs.getString("definition"),
+                rs.getBoolean("is_primary")), LIVE_TABLE);
+    }
+
+    /**
+     * Recria na tabela sombra o mesmo índice da tabela atual, com o sufixo
+     * {@value #SHADOW_SUFFIX} no nome. Idempotente, para a retomada.
+     */
+    private void createShadowIndex(JdbcTemplate jdbc, IndexDefinition index) {
+        String shadowName = index.name() + SHADOW_SUFFIX;
+        String definition = Pattern.compile(
+                        "INDEX " + Pattern.quote(index.name()) + " ON (\\S*?)" + LIVE_TABLE + " USING")
+                .matcher(index.definition())
+                .replaceFirst("INDEX " + shadowName + " ON $1" + SHADOW_TABLE + " USING");
+
+        if (index.primary()) {
+            jdbc.execute("ALTER TABLE " + SHADOW_TABLE + " DROP CONSTRAINT IF EXISTS " + shadowName);
+        }
+        jdbc.execute("DROP INDEX IF EXISTS " + shadowName);
+        jdbc.execute(definition);
+        if (index.primary()) {
+            jdbc.execute("ALTER TABLE " + SHADOW_TABLE + " ADD CONSTRAINT " + shadowName
+                    + " PRIMARY KEY USING INDEX " + shadowName);
+        }
+    }
+
+    /**
+     * Bloqueia as escritas em orders por poucos instantes: espera os commands em
+     * andamento, reaplica os pedidos alterados desde o início do rebuild (a
+     * margem cobre transações abertas antes dele) e troca as tabelas.
+     */
+    private void swap(long rebuildId, List<IndexDefinition> indexes) {
+        transactionTemplate.executeWithoutResult(status -> {
+            LocalDateTime startedAt = jdbcTemplate.queryForObject(
+                    "SELECT started_at FROM read_model_rebuilds WHERE id = ? AND state = ? FOR UPDATE",
+                    LocalDateTime.class, rebuildId, RUNNING);
+            jdbcTemplate.execute("SET LOCAL lock_timeout = " + lockTimeout.toMillis());
+            jdbcTemplate.execute("LOCK TABLE orders, order_items IN SHARE MODE");
+
+            int caughtUp = jdbcTemplate.update(CATCH_UP_SQL, Timestamp.valueOf(startedAt.minus(catchUpMargin)));
+
+            jdbcTemplate.execute("DROP TABLE " + LIVE_TABLE);
+            jdbcTemplate.execute("ALTER TABLE " + SHADOW_TABLE + " RENAME TO " + LIVE_TABLE);
+            for (IndexDefinition index : indexes) {
+                jdbcTemplate.execute("ALTER INDEX " + index.name() + SHADOW_SUFFIX + " RENAME TO " + index.name());
+            }
+            jdbcTemplate.update("UPDATE read_model_rebuilds SET state = ?, finished_at = NOW() WHERE id = ?",
+                    COMPLETED, rebuildId);
+            log.info("Rebuild {} do read model concluído; {} pedidos reaplicados na troca", rebuildId, caughtUp);
+        });
+    }
+
+    private HikariDataSource workerPool(int workers) {
+        var pool = new HikariDataSource();
+        pool.setJdbcUrl(dataSourceProperties.determineUrl());
+        pool.setUsername(dataSourceProperties.determineUsername());
+        pool.setPassword(dataSourceProperties.determinePassword());
+        pool.setMaximumPoolSize(workers);
+        pool.setPoolName("rebuild-pool");
+        return pool;
+    }
+
+    private static ThreadFactory workerThreads() {
+        var counter = new AtomicInteger();
+        return r -> {
+            var thread = new Thread(r, "read-model-rebuild-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private static void awaitAll(List<Future<?>> tasks) throws InterruptedException, ExecutionException {
+        for (Future<?> task : tasks) {
+            task.get();
+        }
+    }
+
+    private static void closeQuietly(Connection connection) {
+        if (connection == null) {
+            return;
+        }
+        try {
+            connection.close();
+        } catch (SQLException ignored) {
+            // o lock é liberado com a sessão de qualquer forma
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        coordinator.shutdownNow();
+    }
+
+    private record Chunk(int number, UUID start, UUID end) {
+    }
+
+    private record IndexDefinition(String name, String definition, boolean primary) {
+    }
+}
@@ -0,0 +1,55 @@
+package com.poc.cqrs.config;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Formatos binários por negociação de conteúdo: {@code Accept: application/cbor}
+ * ou {@code application/x-jackson-smile}. Os conversores usam o mesmo builder
+ * do JSON (módulos e {@code spring.jackson.*}), então os campos e formatos de
+ * data são os mesmos; só a codificação muda. UUIDs saem como 16 bytes binários.
+ * <p>
+ * Os beans substituem os conversores padrão do Spring MVC na mesma posição,
+ * depois do JSON, que continua sendo o formato padrão.
+ * <p>
+ * Como a mesma URL responde em formatos diferentes, as consultas levam
+ * {@code Vary: Accept}: caches guardam e revalidam uma resposta por formato.
+ */
+@Configuration
+public class BinaryFormatConfig implements WebMvcConfigurer {
+
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+    }
+
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(builder.factory(new SmileFactory()).build());
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new VaryByAcceptInterceptor()).addPathPatterns("/api/orders/**");
+    }
+
+    public static class VaryByAcceptInterceptor implements HandlerInterceptor {
+
+        @Override
+        public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+            response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+            return true;
+        }
+    }
+}
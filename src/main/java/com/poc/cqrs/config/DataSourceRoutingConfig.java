@@ -0,0 +1,107 @@
+package com.poc.cqrs.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Pools separados para commands e queries. Transações read-only (o lado de
+ * leitura) usam o pool de queries, que pode apontar para uma réplica;
+ * o restante usa o pool de commands. Assim, listagens e relatórios pesados
+ * não esgotam as conexões das escritas.
+ * <p>
+ * O {@link LazyConnectionDataSourceProxy} só obtém a conexão física no primeiro
+ * SQL, quando o flag read-only da transação já é conhecido.
+ */
+@Configuration
+@ConditionalOnProperty(name = "cqrs.datasource.routing.enabled", havingValue = "true")
+public class DataSourceRoutingConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource commandDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        dataSource.setPoolName("command-pool");
+        return dataSource;
+    }
+
+    @Bean
+    @ConfigurationProperties("cqrs.datasource.query.hikari")
+    public HikariDataSource queryDataSource(
+            DataSourceProperties properties,
+            @Value("${cqrs.datasource.query.url:}") String url,
+            @Value("${cqrs.datasource.query.username:}") String username,
+            @Value("${cqrs.datasource.query.password:}") String password
+    ) {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl(url.isBlank() ? properties.determineUrl() : url);
+        dataSource.setUsername(username.isBlank() ? properties.determineUsername() : username);
+        dataSource.setPassword(password.isBlank() ? properties.determinePassword() : password);
+        dataSource.setPoolName("query-pool");
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    @Bean
+    public ReplicaLagMonitor replicaLagMonitor(
+            @Qualifier("queryDataSource") DataSource queryDataSource,
+            @Value("${cqrs.datasource.query.max-lag:5s}") Duration maxLag,
+            MeterRegistry meterRegistry
+    ) {
+        return new ReplicaLagMonitor(queryDataSource, maxLag, meterRegistry);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(
+            @Qualifier("commandDataSource") DataSource commandDataSource,
+            @Qualifier("queryDataSource") DataSource queryDataSource,
+            ReplicaLagMonitor lagMonitor
+    ) {
+        var readOnlyDataSource = new ReplicaFallbackDataSource(lagMonitor);
+        readOnlyDataSource.setTargetDataSources(Map.of(
+                ReplicaFallbackDataSource.QUERY, queryDataSource,
+                ReplicaFallbackDataSource.COMMAND, commandDataSource));
+        readOnlyDataSource.afterPropertiesSet();
+
+        var proxy = new LazyConnectionDataSourceProxy(commandDataSource);
+        proxy.setReadOnlyDataSource(readOnlyDataSource);
+        return proxy;
+    }
+
+    /**
+     * Destino das conexões read-only: o pool de queries, ou o de commands
+     * enquanto a réplica estiver atrasada.
+     */
+    static class ReplicaFallbackDataSource extends AbstractRoutingDataSource {
+
+        static final String QUERY = "query";
+        static final String COMMAND = "command";
+
+        private final ReplicaLagMonitor lagMonitor;
+
+        ReplicaFallbackDataSource(ReplicaLagMonitor lagMonitor) {
+            this.lagMonitor = lagMonitor;
+        }
+
+        @Override
+        protected Object determineCurrentLookupKey() {
+            return lagMonitor.isReplicaUsable() ? QUERY : COMMAND;
+        }
+    }
+}
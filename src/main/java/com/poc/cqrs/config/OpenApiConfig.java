@@ -33,7 +33,13 @@ public class OpenApiConfig {
                         new Tag().name("Queries - Leitura")
                                 .description("Consultas na Materialized View: listagem paginada com filtros dinâmicos"),
                         new Tag().name("Queries - JPQL Tipado")
-                                .description("Consultas com JPQL + projeção para records — demonstra CQRS sem Materialized View, 100% tipado")
+                                .description("Consultas com JPQL + projeção para records — demonstra CQRS sem Materialized View, 100% tipado"),
+                        new Tag().name("Queries - Estatísticas")
+                                .description("Rollup diário por status mantido incrementalmente a cada command"),
+                        new Tag().name("Queries - Roteamento por defasagem")
+                                .description("Read model ou JPQL conforme a defasagem máxima aceita pelo cliente"),
+                        new Tag().name("Admin - Read Model")
+                                .description("Reconstrução paralela da tabela do read model, com retomada e troca atômica")
                 ));
     }
 }
@@ -0,0 +1,33 @@
+package com.poc.cqrs.config;
+
+import org.hibernate.boot.model.naming.CamelCaseToUnderscoresNamingStrategy;
+import org.hibernate.boot.model.naming.Identifier;
+import org.hibernate.boot.model.naming.PhysicalNamingStrategy;
+import org.hibernate.engine.jdbc.env.spi.JdbcEnvironment;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class ReadModelConfig {
+
+    /**
+     * Faz o {@code OrderSummaryView} apontar para a tabela do modo ativo,
+     * sem que o lado de leitura precise conhecer qual estratégia está em uso.
+     */
+    @Bean
+    public PhysicalNamingStrategy readModelNamingStrategy(
+            @Value("${cqrs.read-model.mode:materialized-view}") ReadModelMode mode
+    ) {
+        return new CamelCaseToUnderscoresNamingStrategy() {
+            @Override
+            public Identifier toPhysicalTableName(Identifier logicalName, JdbcEnvironment jdbcEnvironment) {
+                var physical = super.toPhysicalTableName(logicalName, jdbcEnvironment);
+                if (ReadModelMode.MATERIALIZED_VIEW.tableName().equals(physical.getText())) {
+                    return Identifier.toIdentifier(mode.tableName(), physical.isQuoted());
+                }
+                return physical;
+            }
+        };
+    }
+}
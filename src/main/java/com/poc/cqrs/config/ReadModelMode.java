@@ -0,0 +1,24 @@
+package com.poc.cqrs.config;
+
+/**
+ * Estratégia de manutenção do read model de pedidos.
+ * Selecionada por {@code cqrs.read-model.mode}.
+ */
+public enum ReadModelMode {
+
+    /** Materialized View reconstruída por inteiro a cada refresh. */
+    MATERIALIZED_VIEW("order_summary_mview"),
+
+    /** Tabela atualizada linha a linha, apenas para os pedidos alterados. */
+    INCREMENTAL("order_summary");
+
+    private final String tableName;
+
+    ReadModelMode(String tableName) {
+        this.tableName = tableName;
+    }
+
+    public String tableName() {
+        return tableName;
+    }
+}
@@ -0,0 +1,113 @@
+package com.poc.cqrs.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Mede periodicamente o atraso de replicação do banco de leitura. Acima do
+ * limite (ou se o banco de leitura não responder, ou se o receptor de WAL
+ * estiver parado), as transações read-only voltam para o primário até a
+ * réplica alcançar.
+ * Contra um primário (mesma instância), o atraso é sempre zero.
+ */
+public class ReplicaLagMonitor {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaLagMonitor.class);
+
+    // Sem escrita recente no primário o replay_timestamp fica parado; se o
+    // receptor de WAL está conectado e tudo o que recebeu já foi aplicado, a
+    // réplica está em dia. Com o receptor parado, "recebido = aplicado" não diz
+    // nada (nada mais chega), então vale a idade do último replay.
+    // Sem pg_read_all_stats (ou pg_monitor), o status vem nulo e só a presença
+    // do processo receptor é verificada.
+    private static final String LAG_SQL = """
+            WITH receiver AS (SELECT EXISTS (SELECT 1
+                                             FROM pg_stat_wal_receiver
+                                             WHERE COALESCE(status, 'streaming') = 'streaming') AS streaming)
+            SELECT pg_is_in_recovery() AS standby,
+                   NOT pg_is_in_recovery() OR streaming AS receiving,
+                   CASE
+                       WHEN NOT pg_is_in_recovery() THEN 0
+                       WHEN streaming AND pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0
+                       ELSE COALESCE(EXTRACT(EPOCH FROM NOW() - pg_last_xact_replay_timestamp()), 0)
+                       END AS lag
+            FROM receiver
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final double maxLagSeconds;
+    private volatile double lagSeconds;
+    private volatile long lastCheckNanos = System.nanoTime();
+    // Sem réplica configurada o pool de queries aponta para o próprio primário
+    private volatile boolean standby = true;
+    private volatile boolean healthy = true;
+
+    public ReplicaLagMonitor(DataSource replica, Duration maxLag, MeterRegistry meterRegistry) {
+        this.jdbcTemplate = new JdbcTemplate(replica);
+        this.jdbcTemplate.setQueryTimeout(2);
+        this.maxLagSeconds = maxLag.toMillis() / 1000.0;
+
+        Gauge.builder("cqrs.datasource.replica.lag", this, m -> m.lagSeconds)
+                .description("Atraso de replicação do banco de leitura")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        Gauge.builder("cqrs.datasource.replica.active", this, m -> m.healthy ? 1 : 0)
+                .description("1 se as leituras vão para o banco de leitura, 0 se voltaram para o primário")
+                .register(meterRegistry);
+    }
+
+    public boolean isReplicaUsable() {
+        return healthy;
+    }
+
+    /**
+     * Quanto uma leitura read-only pode estar atrás do primário agora: zero se
+     * ela é servida pelo primário; senão, o último atraso medido mais
+     * o tempo desde a medição (o atraso pode ter crescido nesse intervalo).
+     */
+    public Duration readLag() {
+        if (!healthy || !standby) {
+            return Duration.ZERO;
+        }
+        return Duration.ofMillis(Math.round(lagSeconds * 1000))
+                .plusNanos(System.nanoTime() - lastCheckNanos);
+    }
+
+    @Scheduled(fixedDelayString = "${cqrs.datasource.query.lag-check-interval:PT1S}")
+    public void check() {
+        boolean wasHealthy = healthy;
+        boolean receiving;
+        try {
+            receiving = Boolean.TRUE.equals(jdbcTemplate.queryForObject(LAG_SQL, (rs, rowNum) -> {
+                lagSeconds = rs.getDouble("lag");
+                standby = rs.getBoolean("standby");
+                return rs.getBoolean("receiving");
+            }));
+            healthy = receiving && lagSeconds <= maxLagSeconds;
+            lastCheckNanos = System.nanoTime();
+        } catch (RuntimeException ex) {
+            healthy = false;
+            if (wasHealthy) {
+                log.warn("Banco de leitura indisponível, leituras redirecionadas ao primário", ex);
+            }
+            return;
+        }
+        if (wasHealthy == healthy) {
+            return;
+        }
+        if (healthy) {
+            log.warn("Banco de leitura em dia ({}s), leituras voltam para a réplica", lagSeconds);
+        } else if (!receiving) {
+            log.warn("Receptor de WAL da réplica parado, leituras redirecionadas ao primário");
+        } else {
+            log.warn("Atraso de replicação de {}s acima do limite, leituras redirecionadas ao primário", lagSeconds);
+        }
+    }
+}
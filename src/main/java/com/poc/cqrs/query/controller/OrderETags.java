@@ -0,0 +1,114 @@
+package com.poc.cqrs.query.controller;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * ETags dos endpoints de pedido. O {@code updated_at} muda a cada command,
+ * então identifica a versão de um pedido sem precisar serializar a resposta.
+ * <p>
+ * A mesma versão tem uma representação por formato (JSON, CBOR ou Smile, ver
+ * {@code BinaryFormatConfig}); o formato negociado pelo {@code Accept} entra
+ * no ETag, para um cache nunca trocar um formato pelo outro.
+ */
+final class OrderETags {
+
+    private static final MediaType SMILE = new MediaType("application", "x-jackson-smile");
+
+    // Mesma ordem dos conversores: com */*, o JSON é escolhido
+    private static final List<MediaType> REPRESENTATIONS = List.of(
+            MediaType.APPLICATION_JSON, MediaType.APPLICATION_CBOR, SMILE);
+
+    private OrderETags() {}
+
+    static String of(LocalDateTime updatedAt) {
+        return quote(Long.toHexString(micros(updatedAt)));
+    }
+
+    /**
+     * ETag de uma listagem: combina id e {@code updated_at} de cada linha, na
+     * ordem retornada, com os metadados que também fazem parte da resposta
+     * (ex: total de registros).
+     */
+    static <T> String of(List<T> rows, Function<T, UUID> idOf, Function<T, LocalDateTime> updatedAtOf,
+                         long... metadata) {
+        long hash = 1125899906842597L;
+        for (T row : rows) {
+            UUID id = idOf.apply(row);
+            hash = 31 * hash + id.getMostSignificantBits();
+            hash = 31 * hash + id.getLeastSignificantBits();
+            hash = 31 * hash + micros(updatedAtOf.apply(row));
+        }
+        for (long value : metadata) {
+            hash = 31 * hash + value;
+        }
+        return quote(Long.toHexString(hash) + "-" + Integer.toHexString(rows.size()));
+    }
+
+    /**
+     * ETag de uma página: o total entra no hash quando foi calculado; sem total
+     * ({@code Slice}), entra a existência de próxima página.
+     */
+    static <T> String of(Slice<T> slice, Function<T, UUID> idOf, Function<T, LocalDateTime> updatedAtOf) {
+        long metadata = slice instanceof Page<T> page ? page.getTotalElements() : (slice.hasNext() ? -1 : -2);
+        return of(slice.getContent(), idOf, updatedAtOf, metadata);
+    }
+
+    private static long micros(LocalDateTime value) {
+        return value.toEpochSecond(ZoneOffset.UTC) * 1_000_000 + value.getNano() / 1_000;
+    }
+
+    private static String quote(String tag) {
+        MediaType representation = negotiatedRepresentation();
+        String suffix = MediaType.APPLICATION_JSON.equals(representation) ? "" : "-" + representation.getSubtype();
+        return '"' + tag + suffix + '"';
+    }
+
+    /**
+     * Formato que a negociação de conteúdo vai escolher para a requisição
+     * atual, pela mesma regra do Spring MVC: o tipo aceito mais específico
+     * (e de maior qualidade) compatível com um dos formatos, na ordem dos conversores.
+     */
+    static MediaType negotiatedRepresentation() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        String accept = attributes instanceof ServletRequestAttributes servlet
+                ? servlet.getRequest().getHeader(HttpHeaders.ACCEPT)
+                : null;
+        if (accept == null || accept.isBlank()) {
+            return MediaType.APPLICATION_JSON;
+        }
+
+        List<MediaType> acceptable;
+        try {
+            acceptable = new ArrayList<>(MediaType.parseMediaTypes(accept));
+        } catch (InvalidMediaTypeException ex) {
+            return MediaType.APPLICATION_JSON;
+        }
+        MimeTypeUtils.sortBySpecificity(acceptable);
+        for (MediaType type : acceptable) {
+            if (type.getQualityValue() == 0) {
+                continue;
+            }
+            for (MediaType representation : REPRESENTATIONS) {
+                if (type.isCompatibleWith(representation)) {
+                    return representation;
+                }
+            }
+        }
+        return MediaType.APPLICATION_JSON;
+    }
+}
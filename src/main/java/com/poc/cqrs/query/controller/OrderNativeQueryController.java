@@ -2,43 +2,113 @@ package com.poc.cqrs.query.controller;
 
 import com.poc.cqrs.command.enums.OrderStatus;
 import com.poc.cqrs.query.controller.api.OrderNativeQueryApi;
+import com.poc.cqrs.query.dto.BatchGetResult;
+import com.poc.cqrs.query.dto.KeysetSlice;
+import com.poc.cqrs.query.dto.OrderCursor;
 import com.poc.cqrs.query.dto.OrderSummaryJpqlView;
 import com.poc.cqrs.query.repository.OrderReadRepository;
-import org.springframework.data.domain.Page;
+import com.poc.cqrs.query.service.CountStrategy;
+import com.poc.cqrs.query.service.OrderCountService;
+import com.poc.cqrs.query.service.OrderSummaryBatchService;
+import com.poc.cqrs.query.service.OrderSummaryCache;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.UUID;
 
 @RestController
 public class OrderNativeQueryController implements OrderNativeQueryApi {
 
     private final OrderReadRepository readRepository;
+    private final OrderSummaryCache summaryCache;
+    private final OrderCountService countService;
+    private final OrderSummaryBatchService batchService;
 
-    public OrderNativeQueryController(OrderReadRepository readRepository) {
+    public OrderNativeQueryController(
+            OrderReadRepository readRepository,
+            OrderSummaryCache summaryCache,
+            OrderCountService countService,
+            OrderSummaryBatchService batchService
+    ) {
         this.readRepository = readRepository;
+        this.summaryCache = summaryCache;
+        this.countService = countService;
+        this.batchService = batchService;
     }
 
     @Override
-    public ResponseEntity<Page<OrderSummaryJpqlView>> list(
+    @Timed(value = "cqrs.query", extraTags = {"strategy", "jpql", "endpoint", "list"}, histogram = true)
+    public ResponseEntity<Slice<OrderSummaryJpqlView>> list(
             @RequestParam(required = false) String status,
             @RequestParam(required = false) String customer,
+            @RequestParam(required = false) String count,
             Pageable pageable
     ) {
-        OrderStatus statusEnum = null;
-        if (status != null && !status.isBlank()) {
-            statusEnum = OrderStatus.valueOf(status.toUpperCase());
-        }
+        CountStrategy strategy = countService.resolve(count);
+        OrderStatus orderStatus = OrderQueryFilters.status(status);
+        Slice<OrderSummaryJpqlView> page = countService.page(strategy, OrderCountService.Source.JPQL,
+                status, customer, pageable,
+                p -> readRepository.findSliceSummaryFiltered(orderStatus, customer, p),
+                () -> readRepository.countSummaryFiltered(orderStatus, customer));
+        return ResponseEntity.ok()
+                .header(OrderCountService.STRATEGY_HEADER, strategy.headerValue())
+                .eTag(OrderETags.of(page, OrderSummaryJpqlView::orderId, OrderSummaryJpqlView::updatedAt))
+                .body(page);
+    }
 
-        Page<OrderSummaryJpqlView> page = readRepository.findAllSummaryFiltered(
-                statusEnum, customer, pageable);
-        return ResponseEntity.ok(page);
+    @Override
+    @Timed(value = "cqrs.query", extraTags = {"strategy", "jpql", "endpoint", "scroll"}, histogram = true)
+    public ResponseEntity<KeysetSlice<OrderSummaryJpqlView>> scroll(
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String customer,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "20") int size
+    ) {
+        int limit = KeysetSlice.clampSize(size);
+        var cursor = OrderCursor.decode(after);
+
+        var rows = readRepository.findSummariesAfter(
+                OrderQueryFilters.status(status),
+                customer,
+                cursor != null ? cursor.createdAt() : null,
+                cursor != null ? cursor.orderId() : null,
+                PageRequest.of(0, limit + 1));
+        var slice = KeysetSlice.of(rows, limit, v -> new OrderCursor(v.createdAt(), v.orderId()));
+        return ResponseEntity.ok()
+                .eTag(OrderETags.of(slice.content(), OrderSummaryJpqlView::orderId,
+                        OrderSummaryJpqlView::updatedAt, slice.hasNext() ? 1 : 0))
+                .body(slice);
+    }
+
+    @Override
+    @Timed(value = "cqrs.query", extraTags = {"strategy", "jpql", "endpoint", "batchGet"}, histogram = true)
+    public ResponseEntity<BatchGetResult<OrderSummaryJpqlView>> batchGet(@RequestBody List<UUID> orderIds) {
+        return ResponseEntity.ok(batchService.getJpqls(orderIds));
     }
 
     @Override
-    public ResponseEntity<OrderSummaryJpqlView> getById(@PathVariable UUID orderId) {
-        var summary = readRepository.findSummaryById(orderId)
+    @Timed(value = "cqrs.query", extraTags = {"strategy", "jpql", "endpoint", "getById"}, histogram = true)
+    public ResponseEntity<OrderSummaryJpqlView> getById(@PathVariable UUID orderId, WebRequest request) {
+        var cached = summaryCache.peekJpql(orderId);
+        LocalDateTime version = cached != null
+                ? cached.updatedAt()
+                : readRepository.findUpdatedAtById(orderId)
+                        .orElseThrow(() -> new IllegalArgumentException("Pedido não encontrado: " + orderId));
+        if (request.checkNotModified(OrderETags.of(version))) {
+            // 304 e ETag já definidos pelo Spring, sem executar o JOIN
+            return null;
+        }
+        if (cached != null) {
+            return ResponseEntity.ok(cached);
+        }
+        var summary = summaryCache.getJpql(orderId, readRepository::findSummaryById)
                 .orElseThrow(() -> new IllegalArgumentException("Pedido não encontrado: " + orderId));
         return ResponseEntity.ok(summary);
     }
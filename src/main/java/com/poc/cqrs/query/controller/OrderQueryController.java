@@ -1,58 +1,174 @@
 package com.poc.cqrs.query.controller;
 
 import com.poc.cqrs.query.controller.api.OrderQueryApi;
+import com.poc.cqrs.query.dto.BatchGetResult;
+import com.poc.cqrs.query.dto.KeysetSlice;
+import com.poc.cqrs.query.dto.OrderCursor;
 import com.poc.cqrs.query.entity.OrderSummaryView;
+import com.poc.cqrs.query.repository.OrderSummaryViewRepository;
+import com.poc.cqrs.query.service.CountStrategy;
 import com.poc.cqrs.query.service.EntityReadService;
-import jakarta.persistence.criteria.Predicate;
-import org.springframework.data.domain.Page;
+import com.poc.cqrs.query.service.OrderCountService;
+import com.poc.cqrs.query.service.OrderSummaryBatchService;
+import com.poc.cqrs.query.service.OrderSummaryCache;
+import com.poc.cqrs.query.service.OrderSummaryExportService;
+import com.poc.cqrs.query.service.OrderSummaryStream;
+import io.micrometer.core.annotation.Timed;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
-import java.util.ArrayList;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.UUID;
 
 @RestController
 public class OrderQueryController implements OrderQueryApi {
 
+    private static final Sort SEEK_SORT = Sort.by(Sort.Order.desc("createdAt"), Sort.Order.desc("orderId"));
+
     private final EntityReadService<OrderSummaryView, UUID> readService;
+    private final OrderSummaryExportService exportService;
+    private final OrderSummaryCache summaryCache;
+    private final OrderSummaryViewRepository viewRepository;
+    private final ObjectProvider<OrderSummaryStream> summaryStream;
+    private final OrderCountService countService;
+    private final OrderSummaryBatchService batchService;
 
-    public OrderQueryController(EntityReadService<OrderSummaryView, UUID> readService) {
+    public OrderQueryController(
+            EntityReadService<OrderSummaryView, UUID> readService,
+            OrderSummaryExportService exportService,
+            OrderSummaryCache summaryCache,
+            OrderSummaryViewRepository viewRepository,
+            ObjectProvider<OrderSummaryStream> summaryStream,
+            OrderCountService countService,
+            OrderSummaryBatchService batchService
+    ) {
         this.readService = readService;
+        this.exportService = exportService;
+        this.summaryCache = summaryCache;
+        this.viewRepository = viewRepository;
+        this.summaryStream = summaryStream;
+        this.countService = countService;
+        this.batchService = batchService;
     }
 
     @Override
-    public ResponseEntity<Page<OrderSummaryView>> list(
+    @Timed(value = "cqrs.query", extraTags = {"strategy", "view", "endpoint", "list"}, histogram = true)
+    public ResponseEntity<Slice<OrderSummaryView>> list(
             @RequestParam(required = false) String status,
             @RequestParam(required = false) String customer,
+            @RequestParam(required = false) String count,
             Pageable pageable
     ) {
-        Specification<OrderSummaryView> spec = buildSpecification(status, customer);
-        Page<OrderSummaryView> page = readService.findAll(spec, pageable);
-        return ResponseEntity.ok(page);
+        CountStrategy strategy = countService.resolve(count);
+        Specification<OrderSummaryView> spec = OrderQueryFilters.viewSpecification(status, customer);
+        Slice<OrderSummaryView> page = countService.page(strategy, OrderCountService.Source.VIEW,
+                status, customer, pageable,
+                p -> readService.findSlice(spec, p),
+                () -> readService.count(spec));
+        // Com ETag na resposta, o Spring devolve 304 se bater com o If-None-Match
+        return ResponseEntity.ok()
+                .header(OrderCountService.STRATEGY_HEADER, strategy.headerValue())
+                .eTag(OrderETags.of(page, OrderSummaryView::getOrderId, OrderSummaryView::getUpdatedAt))
+                .body(page);
     }
 
     @Override
-    public ResponseEntity<OrderSummaryView> getById(@PathVariable UUID orderId) {
-        return ResponseEntity.ok(readService.findById(orderId));
+    @Timed(value = "cqrs.query", extraTags = {"strategy", "view", "endpoint", "scroll"}, histogram = true)
+    public ResponseEntity<KeysetSlice<OrderSummaryView>> scroll(
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String customer,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "20") int size
+    ) {
+        int limit = KeysetSlice.clampSize(size);
+        Specification<OrderSummaryView> spec = OrderQueryFilters.viewSpecification(status, customer)
+                .and(seekAfter(OrderCursor.decode(after)));
+        var rows = readService.findAll(spec, SEEK_SORT, limit + 1);
+        var slice = KeysetSlice.of(rows, limit, v -> new OrderCursor(v.getCreatedAt(), v.getOrderId()));
+        return ResponseEntity.ok()
+                .eTag(OrderETags.of(slice.content(), OrderSummaryView::getOrderId,
+                        OrderSummaryView::getUpdatedAt, slice.hasNext() ? 1 : 0))
+                .body(slice);
     }
 
-    private Specification<OrderSummaryView> buildSpecification(String status, String customer) {
-        return (root, query, cb) -> {
-            var predicates = new ArrayList<Predicate>();
+    @Override
+    @Timed(value = "cqrs.query", extraTags = {"strategy", "view", "endpoint", "export"}, histogram = true)
+    public void export(
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String customer,
+            @RequestParam(defaultValue = "ndjson") String format,
+            HttpServletResponse response
+    ) throws IOException {
+        var exportFormat = OrderSummaryExportService.Format.from(format);
+        response.setContentType(exportFormat.contentType());
+        response.setCharacterEncoding("UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                "attachment; filename=\"orders." + exportFormat.extension() + "\"");
+        exportService.export(status, customer, exportFormat, response.getOutputStream());
+    }
 
-            if (status != null && !status.isBlank()) {
-                predicates.add(cb.equal(root.get("status"), status.toUpperCase()));
-            }
-            if (customer != null && !customer.isBlank()) {
-                predicates.add(cb.like(
-                        cb.lower(root.get("customerName")),
-                        "%" + customer.toLowerCase() + "%"
-                ));
-            }
+    @Override
+    public SseEmitter stream(
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String customer
+    ) {
+        var stream = summaryStream.getIfAvailable();
+        if (stream == null) {
+            throw new IllegalStateException("Stream de pedidos desabilitado (cqrs.query.stream.enabled=false)");
+        }
+        return stream.subscribe(status, customer);
+    }
+
+    @Override
+    @Timed(value = "cqrs.query", extraTags = {"strategy", "view", "endpoint", "batchGet"}, histogram = true)
+    public ResponseEntity<BatchGetResult<OrderSummaryView>> batchGet(@RequestBody List<UUID> orderIds) {
+        return ResponseEntity.ok(batchService.getViews(orderIds));
+    }
+
+    @Override
+    @Timed(value = "cqrs.query", extraTags = {"strategy", "view", "endpoint", "getById"}, histogram = true)
+    public ResponseEntity<OrderSummaryView> getById(@PathVariable UUID orderId, WebRequest request) {
+        var cached = summaryCache.peekView(orderId);
+        LocalDateTime version = cached != null
+                ? cached.getUpdatedAt()
+                : viewRepository.findUpdatedAtById(orderId)
+                        .orElseThrow(() -> new IllegalArgumentException("Registro não encontrado: " + orderId));
+        if (request.checkNotModified(OrderETags.of(version))) {
+            // 304 e ETag já definidos pelo Spring, sem carregar o pedido
+            return null;
+        }
+        return ResponseEntity.ok(cached != null ? cached : summaryCache.getView(orderId, readService::findById));
+    }
 
-            return cb.and(predicates.toArray(new Predicate[0]));
+    /**
+     * Registros posteriores ao cursor na ordem (createdAt DESC, orderId DESC).
+     * O {@code createdAt <= cursor} redundante permite ao banco começar a leitura
+     * direto no índice idx_order_summary_mview_created_id.
+     */
+    private Specification<OrderSummaryView> seekAfter(OrderCursor cursor) {
+        return (root, query, cb) -> {
+            if (cursor == null) {
+                return null;
+            }
+            var createdAt = root.<LocalDateTime>get("createdAt");
+            return cb.and(
+                    cb.lessThanOrEqualTo(createdAt, cursor.createdAt()),
+                    cb.or(
+                            cb.lessThan(createdAt, cursor.createdAt()),
+                            cb.lessThan(root.<UUID>get("orderId"), cursor.orderId())
+                    )
+            );
         };
     }
 }
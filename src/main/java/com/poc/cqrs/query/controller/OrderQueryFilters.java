@@ -0,0 +1,43 @@
+package com.poc.cqrs.query.controller;
+
+import com.poc.cqrs.command.enums.OrderStatus;
+import com.poc.cqrs.query.entity.OrderSummaryView;
+import jakarta.persistence.criteria.Predicate;
+import org.hibernate.query.criteria.HibernateCriteriaBuilder;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+
+/**
+ * Filtros de status e cliente das listagens, nas duas estratégias de leitura.
+ */
+final class OrderQueryFilters {
+
+    private OrderQueryFilters() {}
+
+    static Specification<OrderSummaryView> viewSpecification(String status, String customer) {
+        return (root, query, cb) -> {
+            var predicates = new ArrayList<Predicate>();
+
+            if (status != null && !status.isBlank()) {
+                predicates.add(cb.equal(root.get("status"), status.toUpperCase()));
+            }
+            if (customer != null && !customer.isBlank()) {
+                // ILIKE direto na coluna para usar o índice trigram (V6)
+                predicates.add(((HibernateCriteriaBuilder) cb).ilike(
+                        root.get("customerName"),
+                        "%" + customer + "%"
+                ));
+            }
+
+            return cb.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+
+    static OrderStatus status(String status) {
+        if (status == null || status.isBlank()) {
+            return null;
+        }
+        return OrderStatus.valueOf(status.toUpperCase());
+    }
+}
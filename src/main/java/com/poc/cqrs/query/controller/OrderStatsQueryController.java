@@ -0,0 +1,56 @@
+package com.poc.cqrs.query.controller;
+
+import com.poc.cqrs.query.controller.api.OrderStatsQueryApi;
+import com.poc.cqrs.query.entity.OrderStatsDaily;
+import com.poc.cqrs.query.service.EntityReadService;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+@RestController
+public class OrderStatsQueryController implements OrderStatsQueryApi {
+
+    private static final int DEFAULT_DAYS = 30;
+    private static final Sort SORT = Sort.by("day", "status");
+
+    private final EntityReadService<OrderStatsDaily, OrderStatsDaily.Key> readService;
+
+    public OrderStatsQueryController(EntityReadService<OrderStatsDaily, OrderStatsDaily.Key> readService) {
+        this.readService = readService;
+    }
+
+    @Override
+    @Timed(value = "cqrs.query", extraTags = {"strategy", "rollup", "endpoint", "stats"}, histogram = true)
+    public ResponseEntity<List<OrderStatsDaily>> stats(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String status
+    ) {
+        LocalDate end = to != null ? to : LocalDate.now();
+        LocalDate start = from != null ? from : end.minusDays(DEFAULT_DAYS - 1);
+        if (start.isAfter(end)) {
+            throw new IllegalArgumentException("Período inválido: from deve ser anterior ou igual a to");
+        }
+
+        Specification<OrderStatsDaily> spec = (root, query, cb) -> {
+            var predicates = new ArrayList<Predicate>();
+            predicates.add(cb.between(root.get("day"), start, end));
+            // Status que ficaram sem pedidos no dia permanecem no rollup com zero
+            predicates.add(cb.greaterThan(root.get("orderCount"), 0L));
+            if (status != null && !status.isBlank()) {
+                predicates.add(cb.equal(root.get("status"), status.toUpperCase()));
+            }
+            return cb.and(predicates.toArray(Predicate[]::new));
+        };
+        return ResponseEntity.ok(readService.findAll(spec, SORT));
+    }
+}
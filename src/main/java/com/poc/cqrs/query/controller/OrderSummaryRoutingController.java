@@ -0,0 +1,162 @@
+package com.poc.cqrs.query.controller;
+
+import com.poc.cqrs.command.enums.OrderStatus;
+import com.poc.cqrs.query.controller.api.OrderSummaryRoutingApi;
+import com.poc.cqrs.query.dto.OrderSummaryJpqlView;
+import com.poc.cqrs.query.entity.OrderSummaryView;
+import com.poc.cqrs.query.repository.OrderReadRepository;
+import com.poc.cqrs.query.service.CountStrategy;
+import com.poc.cqrs.query.service.EntityReadService;
+import com.poc.cqrs.query.service.OrderCountService;
+import com.poc.cqrs.query.service.OrderReadRouter;
+import com.poc.cqrs.query.service.OrderSummaryCache;
+import com.poc.cqrs.query.service.OrderSummaryCache.Entry;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@RestController
+public class OrderSummaryRoutingController implements OrderSummaryRoutingApi {
+
+    private static final String DATA_AS_OF_HEADER = "X-Data-As-Of";
+    private static final String READ_SOURCE_HEADER = "X-Read-Source";
+
+    private final OrderReadRouter router;
+    private final EntityReadService<OrderSummaryView, UUID> viewReadService;
+    private final OrderReadRepository readRepository;
+    private final OrderCountService countService;
+    private final OrderSummaryCache summaryCache;
+    private final TransactionTemplate primaryRead;
+
+    public OrderSummaryRoutingController(
+            OrderReadRouter router,
+            EntityReadService<OrderSummaryView, UUID> viewReadService,
+            OrderReadRepository readRepository,
+            OrderCountService countService,
+            OrderSummaryCache summaryCache,
+            PlatformTransactionManager transactionManager
+    ) {
+        this.router = router;
+        this.viewReadService = viewReadService;
+        this.readRepository = readRepository;
+        this.countService = countService;
+        this.summaryCache = summaryCache;
+        // O fallback JPQL é anunciado como atual: a transação de escrita o leva ao primário
+        this.primaryRead = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    @Timed(value = "cqrs.query", extraTags = {"strategy", "routed", "endpoint", "list"}, histogram = true)
+    public ResponseEntity<Slice<OrderSummaryJpqlView>> list(
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String customer,
+            @RequestParam(required = false) String count,
+            @RequestParam(required = false) String maxStaleness,
+            @RequestHeader(value = "X-Max-Staleness", required = false) String maxStalenessHeader,
+            Pageable pageable
+    ) {
+        CountStrategy strategy = countService.resolve(count);
+        var route = router.route(maxStaleness(maxStaleness, maxStalenessHeader), "list");
+
+        Slice<OrderSummaryJpqlView> page;
+        if (route.source() == OrderReadRouter.Source.VIEW) {
+            Specification<OrderSummaryView> spec = OrderQueryFilters.viewSpecification(status, customer);
+            page = countService.page(strategy, OrderCountService.Source.VIEW, status, customer, pageable,
+                    p -> viewReadService.findSlice(spec, p).map(OrderSummaryJpqlView::from),
+                    () -> viewReadService.count(spec));
+        } else {
+            OrderStatus orderStatus = OrderQueryFilters.status(status);
+            page = primaryRead.execute(tx -> countService.page(strategy, OrderCountService.Source.JPQL,
+                    status, customer, pageable,
+                    p -> readRepository.findSliceSummaryFiltered(orderStatus, customer, p),
+                    () -> readRepository.countSummaryFiltered(orderStatus, customer)));
+        }
+        return ResponseEntity.ok()
+                .header(DATA_AS_OF_HEADER, route.dataAsOf().toString())
+                .header(READ_SOURCE_HEADER, route.source().headerValue())
+                .header(OrderCountService.STRATEGY_HEADER, strategy.headerValue())
+                .eTag(OrderETags.of(page, OrderSummaryJpqlView::orderId, OrderSummaryJpqlView::updatedAt))
+                .body(page);
+    }
+
+    @Override
+    @Timed(value = "cqrs.query", extraTags = {"strategy", "routed", "endpoint", "getById"}, histogram = true)
+    public ResponseEntity<OrderSummaryJpqlView> getById(
+            @PathVariable UUID orderId,
+            @RequestParam(required = false) String maxStaleness,
+            @RequestHeader(value = "X-Max-Staleness", required = false) String maxStalenessHeader
+    ) {
+        var route = router.route(maxStaleness(maxStaleness, maxStalenessHeader), "getById");
+
+        var entry = route.source() == OrderReadRouter.Source.VIEW
+                ? readView(orderId, route)
+                : readJpql(orderId, route);
+        OrderSummaryJpqlView summary = entry.value();
+        return ResponseEntity.ok()
+                .header(DATA_AS_OF_HEADER, entry.dataAsOf().toString())
+                .header(READ_SOURCE_HEADER, route.source().headerValue())
+                .eTag(OrderETags.of(summary.updatedAt()))
+                .body(summary);
+    }
+
+    private Entry<OrderSummaryJpqlView> readView(UUID orderId, OrderReadRouter.Route route) {
+        if (cacheFits(route)) {
+            var cached = summaryCache.getViewEntry(orderId, viewReadService::findById);
+            if (withinBound(cached.dataAsOf(), route)) {
+                return new Entry<>(OrderSummaryJpqlView.from(cached.value()), cached.dataAsOf());
+            }
+        }
+        return new Entry<>(OrderSummaryJpqlView.from(viewReadService.findById(orderId)), route.dataAsOf());
+    }
+
+    private Entry<OrderSummaryJpqlView> readJpql(UUID orderId, OrderReadRouter.Route route) {
+        if (cacheFits(route)) {
+            var cached = summaryCache.getJpqlEntry(orderId, readRepository::findSummaryById);
+            if (cached.isPresent() && withinBound(cached.get().dataAsOf(), route)) {
+                return cached.get();
+            }
+        }
+        return new Entry<>(primaryRead.execute(tx -> readRepository.findSummaryById(orderId))
+                .orElseThrow(() -> new IllegalArgumentException("Pedido não encontrado: " + orderId)),
+                route.dataAsOf());
+    }
+
+    /**
+     * As invalidações do cache só alcançam este nó e uma entrada pode ter até o
+     * TTL de idade: abaixo dele, o cache nem é consultado.
+     */
+    private boolean cacheFits(OrderReadRouter.Route route) {
+        return route.maxStaleness().compareTo(summaryCache.ttl()) >= 0;
+    }
+
+    private static boolean withinBound(LocalDateTime dataAsOf, OrderReadRouter.Route route) {
+        return !dataAsOf.isBefore(LocalDateTime.now().minus(route.maxStaleness()));
+    }
+
+    /**
+     * Aceita o formato do Spring Boot ({@code 500ms}, {@code 5s}) e ISO-8601 ({@code PT5S});
+     * o parâmetro tem precedência sobre o header.
+     */
+    private static Duration maxStaleness(String param, String header) {
+        String value = param != null ? param : header;
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        try {
+            return DurationStyle.detectAndParse(value.trim());
+        } catch (IllegalArgumentException ex) {
+            throw new IllegalArgumentException("max-staleness inválido: " + value
+                    + " (use, por exemplo, 500ms, 5s ou PT5S)");
+        }
+    }
+}
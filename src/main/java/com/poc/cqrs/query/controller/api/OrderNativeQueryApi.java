@@ -1,18 +1,26 @@
 package com.poc.cqrs.query.controller.api;
 
+import com.poc.cqrs.query.dto.BatchGetResult;
+import com.poc.cqrs.query.dto.KeysetSlice;
 import com.poc.cqrs.query.dto.OrderSummaryJpqlView;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.ExampleObject;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.context.request.WebRequest;
 
+import java.util.List;
 import java.util.UUID;
 
 @Tag(name = "Queries - JPQL Tipado")
@@ -29,13 +37,19 @@ public interface OrderNativeQueryApi {
                     total de itens, subtotal, desconto e total com desconto.
 
                     Suporta **paginação** (page, size) e **ordenação** (sort=createdAt,desc).
+
+                    O parâmetro `count` define como o total é obtido: `exact` (COUNT a cada página),
+                    `estimated` (estimativa do planner, sem ler as linhas), `cached` (COUNT guardado
+                    por filtro durante alguns segundos) ou `none` (sem total, apenas `last`).
+                    A estratégia usada volta no header `X-Count-Strategy`.
                     """,
             responses = {
-                    @ApiResponse(responseCode = "200", description = "Lista paginada de pedidos")
+                    @ApiResponse(responseCode = "200", description = "Lista paginada de pedidos"),
+                    @ApiResponse(responseCode = "400", description = "Estratégia de contagem inválida")
             }
     )
     @GetMapping
-    ResponseEntity<Page<OrderSummaryJpqlView>> list(
+    ResponseEntity<Slice<OrderSummaryJpqlView>> list(
             @Parameter(description = "Filtrar por status (PENDING, CONFIRMED, SHIPPED, DELIVERED, CANCELLED)",
                     example = "PENDING")
             @RequestParam(required = false) String status,
@@ -44,21 +58,85 @@ public interface OrderNativeQueryApi {
                     example = "João")
             @RequestParam(required = false) String customer,
 
+            @Parameter(description = "Como obter o total: exact, estimated, cached ou none (sem total)",
+                    example = "estimated")
+            @RequestParam(required = false) String count,
+
             @Parameter(hidden = true) Pageable pageable);
 
+    @Operation(
+            summary = "Listar pedidos por cursor (JPQL + Record)",
+            description = """
+                    Paginação por **cursor (keyset)**, do pedido mais novo para o mais antigo.
+                    Cada página é buscada direto no índice a partir do último registro visto,
+                    com custo constante mesmo em páginas profundas. Não calcula total de registros.
+
+                    Use o `nextCursor` da resposta no parâmetro `after` para buscar a próxima página.
+                    """,
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Fatia de pedidos com cursor da próxima página"),
+                    @ApiResponse(responseCode = "400", description = "Cursor inválido")
+            }
+    )
+    @GetMapping("/scroll")
+    ResponseEntity<KeysetSlice<OrderSummaryJpqlView>> scroll(
+            @Parameter(description = "Filtrar por status (PENDING, CONFIRMED, SHIPPED, DELIVERED, CANCELLED)",
+                    example = "PENDING")
+            @RequestParam(required = false) String status,
+
+            @Parameter(description = "Filtrar por nome do cliente (busca parcial, case-insensitive)",
+                    example = "João")
+            @RequestParam(required = false) String customer,
+
+            @Parameter(description = "Cursor opaco retornado em `nextCursor` pela página anterior")
+            @RequestParam(required = false) String after,
+
+            @Parameter(description = "Itens por página (máximo 100)", example = "20")
+            @RequestParam(defaultValue = "20") int size);
+
+    @Operation(
+            summary = "Buscar vários pedidos por ID (JPQL + Record)",
+            description = """
+                    Recebe uma lista de ids e retorna os pedidos numa única consulta (JPQL com `IN`),
+                    em vez de uma requisição por id.
+
+                    Os itens voltam **na ordem dos ids enviados**; ids inexistentes aparecem com
+                    `found: false`. Ids já em cache não vão ao banco. Máximo de 200 ids por requisição
+                    (`cqrs.query.batch-get.max-ids`).
+                    """,
+            requestBody = @io.swagger.v3.oas.annotations.parameters.RequestBody(
+                    content = @Content(examples = @ExampleObject(
+                            name = "Ids",
+                            value = """
+                                    ["550e8400-e29b-41d4-a716-446655440000", "6ba7b810-9dad-11d1-80b4-00c04fd430c8"]
+                                    """
+                    ))
+            ),
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Um item por id, na ordem recebida"),
+                    @ApiResponse(responseCode = "400", description = "Lista vazia, com nulos ou acima do limite")
+            }
+    )
+    @PostMapping("/batch-get")
+    ResponseEntity<BatchGetResult<OrderSummaryJpqlView>> batchGet(@RequestBody List<UUID> orderIds);
+
     @Operation(
             summary = "Buscar pedido por ID (JPQL + Record)",
             description = """
                     Mesmo resultado do endpoint `/api/orders/view/{orderId}`, mas via JPQL.
                     Retorna os dados resumidos com JOIN calculado em tempo real.
+                    Suporta `If-None-Match` com o `ETag` da resposta anterior (**304** se não mudou).
                     """,
             responses = {
                     @ApiResponse(responseCode = "200", description = "Pedido encontrado"),
+                    @ApiResponse(responseCode = "304", description = "Pedido não mudou desde o ETag informado"),
                     @ApiResponse(responseCode = "400", description = "Pedido não encontrado")
             }
     )
     @GetMapping("/{orderId}")
     ResponseEntity<OrderSummaryJpqlView> getById(
             @Parameter(description = "ID do pedido", example = "550e8400-e29b-41d4-a716-446655440000")
-            @PathVariable UUID orderId);
+            @PathVariable UUID orderId,
+
+            @Parameter(hidden = true) WebRequest request);
 }
@@ -1,18 +1,30 @@
 package com.poc.cqrs.query.controller.api;
 
+import com.poc.cqrs.query.dto.BatchGetResult;
+import com.poc.cqrs.query.dto.KeysetSlice;
 import com.poc.cqrs.query.entity.OrderSummaryView;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.ExampleObject;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
-import org.springframework.data.domain.Page;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.IOException;
+import java.util.List;
 import java.util.UUID;
 
 @Tag(name = "Queries - Leitura")
@@ -22,19 +34,26 @@ public interface OrderQueryApi {
     @Operation(
             summary = "Listar pedidos (Materialized View)",
             description = """
-                    Retorna dados da **Materialized View** `order_summary_mview`.
+                    Retorna dados da **Materialized View** `order_summary_mview`
+                    (ou da tabela `order_summary` quando `cqrs.read-model.mode=incremental`).
                     Os dados já vêm pré-calculados do banco (total de itens, subtotal, desconto).
                     
                     Suporta **paginação** (page, size) e **ordenação** (sort=createdAt,desc).
+
+                    O parâmetro `count` define como o total é obtido: `exact` (COUNT a cada página),
+                    `estimated` (estimativa do planner, sem ler as linhas), `cached` (COUNT guardado
+                    por filtro durante alguns segundos) ou `none` (sem total, apenas `last`).
+                    A estratégia usada volta no header `X-Count-Strategy`.
                     
                     **Este endpoint não executa nenhuma regra de negócio** — é pura leitura otimizada.
                     """,
             responses = {
-                    @ApiResponse(responseCode = "200", description = "Lista paginada de pedidos")
+                    @ApiResponse(responseCode = "200", description = "Lista paginada de pedidos"),
+                    @ApiResponse(responseCode = "400", description = "Estratégia de contagem inválida")
             }
     )
     @GetMapping
-    ResponseEntity<Page<OrderSummaryView>> list(
+    ResponseEntity<Slice<OrderSummaryView>> list(
             @Parameter(description = "Filtrar por status (PENDING, CONFIRMED, SHIPPED, DELIVERED, CANCELLED)",
                     example = "PENDING")
             @RequestParam(required = false) String status,
@@ -43,18 +62,142 @@ public interface OrderQueryApi {
                     example = "João")
             @RequestParam(required = false) String customer,
 
+            @Parameter(description = "Como obter o total: exact, estimated, cached ou none (sem total)",
+                    example = "estimated")
+            @RequestParam(required = false) String count,
+
             @Parameter(hidden = true) Pageable pageable);
 
+    @Operation(
+            summary = "Listar pedidos por cursor (Materialized View)",
+            description = """
+                    Paginação por **cursor (keyset)**, do pedido mais novo para o mais antigo.
+                    Cada página é buscada direto no índice a partir do último registro visto,
+                    com custo constante mesmo em páginas profundas. Não calcula total de registros.
+
+                    Use o `nextCursor` da resposta no parâmetro `after` para buscar a próxima página.
+                    """,
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Fatia de pedidos com cursor da próxima página"),
+                    @ApiResponse(responseCode = "400", description = "Cursor inválido")
+            }
+    )
+    @GetMapping("/scroll")
+    ResponseEntity<KeysetSlice<OrderSummaryView>> scroll(
+            @Parameter(description = "Filtrar por status (PENDING, CONFIRMED, SHIPPED, DELIVERED, CANCELLED)",
+                    example = "PENDING")
+            @RequestParam(required = false) String status,
+
+            @Parameter(description = "Filtrar por nome do cliente (busca parcial, case-insensitive)",
+                    example = "João")
+            @RequestParam(required = false) String customer,
+
+            @Parameter(description = "Cursor opaco retornado em `nextCursor` pela página anterior")
+            @RequestParam(required = false) String after,
+
+            @Parameter(description = "Itens por página (máximo 100)", example = "20")
+            @RequestParam(defaultValue = "20") int size);
+
+    @Operation(
+            summary = "Exportar pedidos (streaming)",
+            description = """
+                    Exporta todos os pedidos do read model, com os mesmos filtros da listagem,
+                    em **NDJSON** (um JSON por linha) ou **CSV**.
+
+                    As linhas são lidas por cursor no banco e escritas direto na resposta,
+                    então o consumo de memória não cresce com o volume exportado.
+                    """,
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Arquivo de exportação"),
+                    @ApiResponse(responseCode = "400", description = "Formato inválido")
+            }
+    )
+    @GetMapping("/export")
+    void export(
+            @Parameter(description = "Filtrar por status (PENDING, CONFIRMED, SHIPPED, DELIVERED, CANCELLED)",
+                    example = "PENDING")
+            @RequestParam(required = false) String status,
+
+            @Parameter(description = "Filtrar por nome do cliente (busca parcial, case-insensitive)",
+                    example = "João")
+            @RequestParam(required = false) String customer,
+
+            @Parameter(description = "Formato do arquivo: ndjson ou csv", example = "csv")
+            @RequestParam(defaultValue = "ndjson") String format,
+
+            @Parameter(hidden = true) HttpServletResponse response) throws IOException;
+
+    @Operation(
+            summary = "Stream de alterações (Server-Sent Events)",
+            description = """
+                    Mantém a conexão aberta e envia um evento `order` com a linha do read model
+                    a cada pedido alterado, já na versão nova. Aceita os mesmos filtros da listagem.
+
+                    Os avisos chegam por `LISTEN/NOTIFY` do PostgreSQL, então alterações feitas
+                    em qualquer nó aparecem em todos os streams. Clientes que não consomem os
+                    eventos no ritmo em que chegam são desconectados; ao reconectar, reconsulte
+                    a listagem para não perder alterações.
+                    """,
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Stream text/event-stream"),
+                    @ApiResponse(responseCode = "409", description = "Limite de conexões de stream atingido")
+            }
+    )
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    SseEmitter stream(
+            @Parameter(description = "Filtrar por status (PENDING, CONFIRMED, SHIPPED, DELIVERED, CANCELLED)",
+                    example = "PENDING")
+            @RequestParam(required = false) String status,
+
+            @Parameter(description = "Filtrar por nome do cliente (busca parcial, case-insensitive)",
+                    example = "João")
+            @RequestParam(required = false) String customer);
+
+    @Operation(
+            summary = "Buscar vários pedidos por ID (Materialized View)",
+            description = """
+                    Recebe uma lista de ids e retorna os pedidos numa única consulta (`order_id = ANY(:ids)`),
+                    em vez de uma requisição por id.
+
+                    Os itens voltam **na ordem dos ids enviados**; ids inexistentes aparecem com
+                    `found: false`. Ids já em cache não vão ao banco. Máximo de 200 ids por requisição
+                    (`cqrs.query.batch-get.max-ids`).
+                    """,
+            requestBody = @io.swagger.v3.oas.annotations.parameters.RequestBody(
+                    content = @Content(examples = @ExampleObject(
+                            name = "Ids",
+                            value = """
+                                    ["550e8400-e29b-41d4-a716-446655440000", "6ba7b810-9dad-11d1-80b4-00c04fd430c8"]
+                                    """
+                    ))
+            ),
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Um item por id, na ordem recebida"),
+                    @ApiResponse(responseCode = "400", description = "Lista vazia, com nulos ou acima do limite")
+            }
+    )
+    @PostMapping("/batch-get")
+    ResponseEntity<BatchGetResult<OrderSummaryView>> batchGet(@RequestBody List<UUID> orderIds);
+
     @Operation(
             summary = "Buscar pedido por ID (Materialized View)",
-            description = "Retorna os dados resumidos de um pedido específico da Materialized View.",
+            description = """
+                    Retorna os dados resumidos de um pedido específico da Materialized View.
+
+                    A resposta traz um `ETag` derivado do `updated_at` do pedido. Enviando-o em
+                    `If-None-Match`, a resposta é **304** sem corpo enquanto o pedido não mudar,
+                    e a verificação lê só a versão do pedido, sem carregar o registro.
+                    """,
             responses = {
                     @ApiResponse(responseCode = "200", description = "Pedido encontrado"),
+                    @ApiResponse(responseCode = "304", description = "Pedido não mudou desde o ETag informado"),
                     @ApiResponse(responseCode = "400", description = "Pedido não encontrado")
             }
     )
     @GetMapping("/{orderId}")
     ResponseEntity<OrderSummaryView> getById(
             @Parameter(description = "ID do pedido", example = "550e8400-e29b-41d4-a716-446655440000")
-            @PathVariable UUID orderId);
+            @PathVariable UUID orderId,
+
+            @Parameter(hidden = true) WebRequest request);
 }
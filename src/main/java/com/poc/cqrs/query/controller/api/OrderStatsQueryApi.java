@@ -0,0 +1,48 @@
+package com.poc.cqrs.query.controller.api;
+
+import com.poc.cqrs.query.entity.OrderStatsDaily;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Tag(name = "Queries - Estatísticas")
+@RequestMapping("/api/orders/stats")
+public interface OrderStatsQueryApi {
+
+    @Operation(
+            summary = "Estatísticas diárias por status",
+            description = """
+                    Quantidade de pedidos, receita bruta (`gross`), líquida (`net`) e total de
+                    descontos por **dia de criação e status**, lidos do rollup `order_stats_daily`.
+
+                    O rollup é recalculado só para os dias dos pedidos alterados, logo após o
+                    commit (com atraso de até `cqrs.read-model.stats.flush-interval`).
+                    O custo da consulta depende do número de dias, não do número de pedidos.
+                    Sem `from`/`to`, retorna os últimos 30 dias.
+                    """,
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Uma linha por dia e status com pedidos"),
+                    @ApiResponse(responseCode = "400", description = "Período inválido")
+            }
+    )
+    @GetMapping
+    ResponseEntity<List<OrderStatsDaily>> stats(
+            @Parameter(description = "Primeiro dia (inclusive)", example = "2024-01-01")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+
+            @Parameter(description = "Último dia (inclusive)", example = "2024-01-31")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+
+            @Parameter(description = "Filtrar por status (PENDING, CONFIRMED, SHIPPED, DELIVERED, CANCELLED)",
+                    example = "DELIVERED")
+            @RequestParam(required = false) String status);
+}
@@ -0,0 +1,85 @@
+package com.poc.cqrs.query.controller.api;
+
+import com.poc.cqrs.query.dto.OrderSummaryJpqlView;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+
+import java.util.UUID;
+
+@Tag(name = "Queries - Roteamento por defasagem")
+@RequestMapping("/api/orders/summaries")
+public interface OrderSummaryRoutingApi {
+
+    @Operation(
+            summary = "Listar pedidos com defasagem máxima",
+            description = """
+                    Mesmo resultado de `/api/orders/view` e `/api/orders/jpql`, escolhendo a estratégia
+                    por requisição: lê do **read model** se ele estiver atualizado dentro de `maxStaleness`
+                    (parâmetro ou header `X-Max-Staleness`, ex: `5s`, `500ms`, `PT1M`) e, caso contrário,
+                    do **JPQL** sobre as tabelas de escrita, sempre atualizado.
+
+                    O header `X-Data-As-Of` informa até quando os dados estão atualizados e
+                    `X-Read-Source` a estratégia usada (`view` ou `jpql`). Aceita os mesmos filtros,
+                    paginação e `count` das listagens.
+                    """,
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Lista paginada de pedidos"),
+                    @ApiResponse(responseCode = "400", description = "Defasagem ou estratégia de contagem inválida")
+            }
+    )
+    @GetMapping
+    ResponseEntity<Slice<OrderSummaryJpqlView>> list(
+            @Parameter(description = "Filtrar por status (PENDING, CONFIRMED, SHIPPED, DELIVERED, CANCELLED)",
+                    example = "PENDING")
+            @RequestParam(required = false) String status,
+
+            @Parameter(description = "Filtrar por nome do cliente (busca parcial, case-insensitive)",
+                    example = "João")
+            @RequestParam(required = false) String customer,
+
+            @Parameter(description = "Como obter o total: exact, estimated, cached ou none (sem total)",
+                    example = "estimated")
+            @RequestParam(required = false) String count,
+
+            @Parameter(description = "Defasagem máxima aceita (padrão: cqrs.query.routing.default-max-staleness)",
+                    example = "5s")
+            @RequestParam(required = false) String maxStaleness,
+
+            @Parameter(description = "Alternativa ao parâmetro maxStaleness", example = "5s")
+            @RequestHeader(value = "X-Max-Staleness", required = false) String maxStalenessHeader,
+
+            @Parameter(hidden = true) Pageable pageable);
+
+    @Operation(
+            summary = "Buscar pedido por ID com defasagem máxima",
+            description = """
+                    Lê o pedido do read model se ele estiver atualizado dentro de `maxStaleness`;
+                    caso contrário, do JPQL. O cache por id só é usado se a entrada couber no mesmo
+                    limite. Responde com `X-Data-As-Of` e `X-Read-Source`.
+                    """,
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Pedido encontrado"),
+                    @ApiResponse(responseCode = "400", description = "Pedido não encontrado ou defasagem inválida")
+            }
+    )
+    @GetMapping("/{orderId}")
+    ResponseEntity<OrderSummaryJpqlView> getById(
+            @Parameter(description = "ID do pedido", example = "550e8400-e29b-41d4-a716-446655440000")
+            @PathVariable UUID orderId,
+
+            @Parameter(description = "Defasagem máxima aceita", example = "5s")
+            @RequestParam(required = false) String maxStaleness,
+
+            @Parameter(description = "Alternativa ao parâmetro maxStaleness", example = "5s")
+            @RequestHeader(value = "X-Max-Staleness", required = false) String maxStalenessHeader);
+}
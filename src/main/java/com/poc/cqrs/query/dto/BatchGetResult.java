@@ -0,0 +1,36 @@
+package com.poc.cqrs.query.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Resultado da busca de vários pedidos por id: um item por id pedido, na
+ * ordem recebida, com {@code found=false} para os ids inexistentes.
+ */
+public record BatchGetResult<T>(
+        int requested,
+        int found,
+        List<Item<T>> items
+) {
+    public static <T> BatchGetResult<T> of(List<UUID> orderIds, Map<UUID, T> summaries) {
+        var items = new ArrayList<Item<T>>(orderIds.size());
+        int found = 0;
+        for (UUID orderId : orderIds) {
+            T summary = summaries.get(orderId);
+            if (summary != null) {
+                found++;
+            }
+            items.add(new Item<>(orderId, summary != null, summary));
+        }
+        return new BatchGetResult<>(orderIds.size(), found, items);
+    }
+
+    public record Item<T>(
+            UUID orderId,
+            boolean found,
+            T summary
+    ) {
+    }
+}
@@ -0,0 +1,32 @@
+package com.poc.cqrs.query.dto;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Fatia de resultados da paginação por cursor. Não traz total de registros:
+ * apenas indica se há próxima página e o cursor para buscá-la.
+ */
+public record KeysetSlice<T>(
+        List<T> content,
+        int size,
+        boolean hasNext,
+        String nextCursor
+) {
+    public static final int MAX_SIZE = 100;
+
+    public static int clampSize(int size) {
+        return Math.max(1, Math.min(size, MAX_SIZE));
+    }
+
+    /**
+     * Monta a fatia a partir de uma busca com {@code size + 1} registros:
+     * o registro excedente só indica que existe próxima página.
+     */
+    public static <T> KeysetSlice<T> of(List<T> rows, int size, Function<T, OrderCursor> cursorOf) {
+        boolean hasNext = rows.size() > size;
+        var content = hasNext ? rows.subList(0, size) : rows;
+        String nextCursor = hasNext ? cursorOf.apply(content.get(content.size() - 1)).encode() : null;
+        return new KeysetSlice<>(List.copyOf(content), size, hasNext, nextCursor);
+    }
+}
@@ -0,0 +1,35 @@
+package com.poc.cqrs.query.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Posição de leitura na paginação por cursor: último (created_at, order_id) visto.
+ * Trafega como string opaca (Base64 URL-safe) para o cliente.
+ */
+public record OrderCursor(LocalDateTime createdAt, UUID orderId) {
+
+    private static final String SEPARATOR = "|";
+
+    public String encode() {
+        var raw = createdAt + SEPARATOR + orderId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static OrderCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            var raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int sep = raw.indexOf(SEPARATOR);
+            return new OrderCursor(
+                    LocalDateTime.parse(raw.substring(0, sep)),
+                    UUID.fromString(raw.substring(sep + 1)));
+        } catch (RuntimeException ex) {
+            throw new IllegalArgumentException("Cursor inválido: " + cursor);
+        }
+    }
+}
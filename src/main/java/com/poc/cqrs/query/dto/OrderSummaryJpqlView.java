@@ -1,6 +1,7 @@
 package com.poc.cqrs.query.dto;
 
 import com.poc.cqrs.command.enums.OrderStatus;
+import com.poc.cqrs.query.entity.OrderSummaryView;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -17,4 +18,20 @@ public record OrderSummaryJpqlView(
         LocalDateTime createdAt,
         LocalDateTime updatedAt
 ) {
+
+    /**
+     * Mesma linha lida do read model, para respostas que podem vir de qualquer uma das estratégias.
+     */
+    public static OrderSummaryJpqlView from(OrderSummaryView view) {
+        return new OrderSummaryJpqlView(
+                view.getOrderId(),
+                view.getCustomerName(),
+                OrderStatus.valueOf(view.getStatus()),
+                view.getDiscount(),
+                view.getTotalItems(),
+                view.getSubtotal(),
+                view.getTotalWithDiscount(),
+                view.getCreatedAt(),
+                view.getUpdatedAt());
+    }
 }
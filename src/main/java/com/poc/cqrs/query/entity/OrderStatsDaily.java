@@ -0,0 +1,54 @@
+package com.poc.cqrs.query.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "order_stats_daily")
+@IdClass(OrderStatsDaily.Key.class)
+@Immutable
+@Getter // Getters apenas — sem setters, entidade imutável
+public class OrderStatsDaily {
+
+    @Id
+    private LocalDate day;
+
+    @Id
+    private String status;
+
+    @Column(name = "order_count")
+    private Long orderCount;
+
+    /** Soma dos subtotais, antes do desconto. */
+    private BigDecimal gross;
+
+    /** Soma dos totais com desconto. */
+    private BigDecimal net;
+
+    @Column(name = "discount_total")
+    private BigDecimal discountTotal;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    public static class Key implements Serializable {
+        private LocalDate day;
+        private String status;
+    }
+}
@@ -3,18 +3,23 @@ package com.poc.cqrs.query.repository;
 import com.poc.cqrs.command.entity.Order;
 import com.poc.cqrs.command.enums.OrderStatus;
 import com.poc.cqrs.query.dto.OrderSummaryJpqlView;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
+@Transactional(readOnly = true)
 public interface OrderReadRepository extends JpaRepository<Order, UUID> {
 
-    @Query("""
+    String SUMMARY_FILTERED_QUERY = """
             SELECT new com.poc.cqrs.query.dto.OrderSummaryJpqlView(
                 o.id,
                 o.customerName,
@@ -29,15 +34,70 @@ public interface OrderReadRepository extends JpaRepository<Order, UUID> {
             FROM Order o
             LEFT JOIN o.items i
             WHERE (:status IS NULL OR o.status = :status)
-              AND (:customer IS NULL OR LOWER(o.customerName) LIKE LOWER(CONCAT('%', CAST(:customer AS string), '%')))
+              AND (:customer IS NULL OR o.customerName ILIKE CONCAT('%', CAST(:customer AS string), '%'))
             GROUP BY o.id, o.customerName, o.status, o.discount,
                      o.totalAmount, o.createdAt, o.updatedAt
-            """)
-    Page<OrderSummaryJpqlView> findAllSummaryFiltered(
+            """;
+
+    // Um registro por pedido: o total não precisa do JOIN nem do GROUP BY
+    String SUMMARY_FILTERED_COUNT_QUERY = """
+            SELECT COUNT(o)
+            FROM Order o
+            WHERE (:status IS NULL OR o.status = :status)
+              AND (:customer IS NULL OR o.customerName ILIKE CONCAT('%', CAST(:customer AS string), '%'))
+            """;
+
+    /**
+     * Página sem COUNT: busca uma linha a mais para saber se há próxima página.
+     * O total, quando pedido, vem de {@link #countSummaryFiltered}.
+     */
+    @Query(SUMMARY_FILTERED_QUERY)
+    Slice<OrderSummaryJpqlView> findSliceSummaryFiltered(
             @Param("status") OrderStatus status,
             @Param("customer") String customer,
             Pageable pageable);
 
+    @Query(SUMMARY_FILTERED_COUNT_QUERY)
+    long countSummaryFiltered(
+            @Param("status") OrderStatus status,
+            @Param("customer") String customer);
+
+    /**
+     * Paginação por cursor: busca a partir do último (createdAt, id) visto,
+     * sem OFFSET nem COUNT. A condição redundante {@code createdAt <= :afterCreatedAt}
+     * permite ao banco iniciar a leitura direto no índice idx_orders_created_id,
+     * e o GROUP BY segue a ordem do ORDER BY para a agregação não precisar de sort.
+     */
+    @Query("""
+            SELECT new com.poc.cqrs.query.dto.OrderSummaryJpqlView(
+                o.id,
+                o.customerName,
+                o.status,
+                o.discount,
+                COUNT(i),
+                COALESCE(SUM(i.unitPrice * i.quantity), 0),
+                o.totalAmount,
+                o.createdAt,
+                o.updatedAt
+            )
+            FROM Order o
+            LEFT JOIN o.items i
+            WHERE (:status IS NULL OR o.status = :status)
+              AND (:customer IS NULL OR o.customerName ILIKE CONCAT('%', CAST(:customer AS string), '%'))
+              AND (:afterCreatedAt IS NULL
+                   OR (o.createdAt <= :afterCreatedAt
+                       AND (o.createdAt < :afterCreatedAt OR o.id < :afterId)))
+            GROUP BY o.createdAt, o.id, o.customerName, o.status, o.discount,
+                     o.totalAmount, o.updatedAt
+            ORDER BY o.createdAt DESC, o.id DESC
+            """)
+    List<OrderSummaryJpqlView> findSummariesAfter(
+            @Param("status") OrderStatus status,
+            @Param("customer") String customer,
+            @Param("afterCreatedAt") LocalDateTime afterCreatedAt,
+            @Param("afterId") UUID afterId,
+            Pageable limit);
+
     @Query("""
             SELECT new com.poc.cqrs.query.dto.OrderSummaryJpqlView(
                 o.id,
@@ -57,4 +117,35 @@ public interface OrderReadRepository extends JpaRepository<Order, UUID> {
                      o.totalAmount, o.createdAt, o.updatedAt
             """)
     Optional<OrderSummaryJpqlView> findSummaryById(@Param("orderId") UUID orderId);
+
+    /**
+     * Vários pedidos numa única consulta. JPQL não tem parâmetro array, então o
+     * IN recebe um parâmetro por id; o padding de parâmetros do Hibernate limita
+     * a variedade de SQLs (e de planos) gerados.
+     */
+    @Query("""
+            SELECT new com.poc.cqrs.query.dto.OrderSummaryJpqlView(
+                o.id,
+                o.customerName,
+                o.status,
+                o.discount,
+                COUNT(i),
+                COALESCE(SUM(i.unitPrice * i.quantity), 0),
+                o.totalAmount,
+                o.createdAt,
+                o.updatedAt
+            )
+            FROM Order o
+            LEFT JOIN o.items i
+            WHERE o.id IN :orderIds
+            GROUP BY o.id, o.customerName, o.status, o.discount,
+                     o.totalAmount, o.createdAt, o.updatedAt
+            """)
+    List<OrderSummaryJpqlView> findSummariesByIds(@Param("orderIds") Collection<UUID> orderIds);
+
+    /**
+     * Versão do pedido nas tabelas de escrita, para o ETag: lê só uma coluna pela chave.
+     */
+    @Query("SELECT o.updatedAt FROM Order o WHERE o.id = :orderId")
+    Optional<LocalDateTime> findUpdatedAtById(@Param("orderId") UUID orderId);
 }
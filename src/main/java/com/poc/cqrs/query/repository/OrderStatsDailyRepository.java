@@ -0,0 +1,11 @@
+package com.poc.cqrs.query.repository;
+
+import com.poc.cqrs.query.entity.OrderStatsDaily;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.transaction.annotation.Transactional;
+
+@Transactional(readOnly = true)
+public interface OrderStatsDailyRepository
+        extends JpaRepository<OrderStatsDaily, OrderStatsDaily.Key>, JpaSpecificationExecutor<OrderStatsDaily> {
+}
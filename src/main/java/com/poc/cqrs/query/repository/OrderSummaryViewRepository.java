@@ -3,9 +3,21 @@ package com.poc.cqrs.query.repository;
 import com.poc.cqrs.query.entity.OrderSummaryView;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Optional;
 import java.util.UUID;
 
+@Transactional(readOnly = true)
 public interface OrderSummaryViewRepository
         extends JpaRepository<OrderSummaryView, UUID>, JpaSpecificationExecutor<OrderSummaryView> {
+
+    /**
+     * Versão do pedido no read model, para o ETag: lê só uma coluna pela chave.
+     */
+    @Query("SELECT v.updatedAt FROM OrderSummaryView v WHERE v.orderId = :orderId")
+    Optional<LocalDateTime> findUpdatedAtById(@Param("orderId") UUID orderId);
 }
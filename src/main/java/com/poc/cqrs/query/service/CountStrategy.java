@@ -0,0 +1,36 @@
+package com.poc.cqrs.query.service;
+
+/**
+ * Como o total de registros de uma listagem paginada é obtido.
+ * Selecionada por requisição ({@code count=}) ou por {@code cqrs.query.count.default-strategy}.
+ */
+public enum CountStrategy {
+
+    /** COUNT exato a cada página. */
+    EXACT,
+
+    /** Estimativa do planner do PostgreSQL (EXPLAIN), sem ler as linhas. */
+    ESTIMATED,
+
+    /** COUNT exato guardado por combinação de filtros durante o TTL. */
+    CACHED,
+
+    /** Sem total: a resposta é um {@code Slice} e indica apenas se há próxima página. */
+    NONE;
+
+    public String headerValue() {
+        return name().toLowerCase();
+    }
+
+    public static CountStrategy from(String value, CountStrategy fallback) {
+        if (value == null || value.isBlank()) {
+            return fallback;
+        }
+        try {
+            return valueOf(value.toUpperCase());
+        } catch (IllegalArgumentException ex) {
+            throw new IllegalArgumentException("Estratégia de contagem inválida: " + value
+                    + ". Use exact, estimated, cached ou none.");
+        }
+    }
+}
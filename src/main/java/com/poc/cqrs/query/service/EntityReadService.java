@@ -1,10 +1,18 @@
 package com.poc.cqrs.query.service;
 
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 
@@ -12,12 +20,16 @@ public class EntityReadService<T, ID> implements ReadService<T> {
 
     private final JpaRepository<T, ID> repository;
     private final JpaSpecificationExecutor<T> specExecutor;
+    private final EntityManager entityManager;
+    private final Class<T> domainClass;
 
-    public EntityReadService(JpaRepository<T, ID> repository) {
+    public EntityReadService(JpaRepository<T, ID> repository, EntityManager entityManager, Class<T> domainClass) {
         this.repository = repository;
         this.specExecutor = (JpaSpecificationExecutor<T>) repository;
+        this.entityManager = entityManager;
+        this.domainClass = domainClass;
     }
-    
+
     public Page<T> findAll(Specification<T> spec, Pageable pageable) {
         if (spec == null) {
             return repository.findAll(pageable);
@@ -25,6 +37,50 @@ public class EntityReadService<T, ID> implements ReadService<T> {
         return specExecutor.findAll(spec, pageable);
     }
 
+    /**
+     * Página sem COUNT: busca uma linha a mais só para saber se há próxima.
+     */
+    @Transactional(readOnly = true)
+    public Slice<T> findSlice(Specification<T> spec, Pageable pageable) {
+        var cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<T> query = cb.createQuery(domainClass);
+        Root<T> root = query.from(domainClass);
+        if (spec != null) {
+            var predicate = spec.toPredicate(root, query, cb);
+            if (predicate != null) {
+                query.where(predicate);
+            }
+        }
+        query.orderBy(QueryUtils.toOrders(pageable.getSort(), root, cb));
+
+        var typedQuery = entityManager.createQuery(query);
+        if (pageable.isUnpaged()) {
+            return new SliceImpl<>(typedQuery.getResultList(), pageable, false);
+        }
+        List<T> rows = typedQuery
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize() + 1)
+                .getResultList();
+        boolean hasNext = rows.size() > pageable.getPageSize();
+        return new SliceImpl<>(hasNext ? rows.subList(0, pageable.getPageSize()) : rows, pageable, hasNext);
+    }
+
+    public long count(Specification<T> spec) {
+        return specExecutor.count(spec);
+    }
+
+    public List<T> findAll(Specification<T> spec, Sort sort) {
+        return specExecutor.findAll(spec, sort);
+    }
+
+    /**
+     * Busca limitada sem COUNT, usada na paginação por cursor:
+     * o filtro de posição vem dentro da própria Specification.
+     */
+    public List<T> findAll(Specification<T> spec, Sort sort, int limit) {
+        return specExecutor.findBy(spec, query -> query.sortBy(sort).limit(limit).all());
+    }
+
     @Override
     public Page<T> findAll(Pageable pageable) {
         return repository.findAll(pageable);
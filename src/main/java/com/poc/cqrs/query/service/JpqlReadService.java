@@ -3,10 +3,12 @@ package com.poc.cqrs.query.service;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.support.PageableExecutionUtils;
 
 import java.util.List;
 import java.util.Optional;
 import java.util.function.Function;
+import java.util.function.LongSupplier;
 import java.util.function.Supplier;
 
 public class JpqlReadService<T> implements ReadService<T> {
@@ -49,30 +51,55 @@ public class JpqlReadService<T> implements ReadService<T> {
     }
 
     public static class Builder<T> {
+
+        /** Limite padrão de registros para a paginação em memória. */
+        public static final int DEFAULT_MAX_IN_MEMORY_ROWS = 10_000;
+
         private Supplier<List<T>> findAllFn = unsupportedSupplier("findAll");
         private Function<Pageable, Page<T>> findAllPagedFn;
         private Function<Object, Optional<T>> findByIdFn = unsupportedFn("findById");
         private Function<Object, List<T>> findListByIdFn = unsupportedFn("findListById");
-        private boolean pagedExplicitlySet = false;
+        private LongSupplier countFn;
+        private boolean findAllSet = false;
+        private int maxInMemoryRows = DEFAULT_MAX_IN_MEMORY_ROWS;
 
         public Builder<T> findAll(Supplier<List<T>> fn) {
             this.findAllFn = fn;
-            
-            if (!pagedExplicitlySet) {
-                this.findAllPagedFn = pageable -> {
-                    var all = fn.get();
-                    int start = (int) pageable.getOffset();
-                    int end = Math.min(start + pageable.getPageSize(), all.size());
-                    var content = start >= all.size() ? List.<T>of() : all.subList(start, end);
-                    return new PageImpl<>(content, pageable, all.size());
-                };
-            }
+            this.findAllSet = true;
             return this;
         }
 
         public Builder<T> findAllPaged(Function<Pageable, Page<T>> fn) {
             this.findAllPagedFn = fn;
-            this.pagedExplicitlySet = true;
+            return this;
+        }
+
+        /**
+         * Paginação no banco: {@code contentFn} deve aplicar limit/offset do
+         * {@link Pageable} na própria consulta. O COUNT só é executado quando
+         * o total não pode ser deduzido da página retornada.
+         */
+        public Builder<T> findAllPaged(Function<Pageable, List<T>> contentFn, LongSupplier countFn) {
+            this.findAllPagedFn = pageable ->
+                    PageableExecutionUtils.getPage(contentFn.apply(pageable), pageable, countFn);
+            this.countFn = countFn;
+            return this;
+        }
+
+        /**
+         * Total de registros da view. Obrigatório sem paginação no banco: é usado
+         * para recusar a paginação em memória antes de carregar os dados.
+         */
+        public Builder<T> count(LongSupplier fn) {
+            this.countFn = fn;
+            return this;
+        }
+
+        /**
+         * Acima deste total, a paginação em memória (findAll + subList) é recusada.
+         */
+        public Builder<T> maxInMemoryRows(int maxRows) {
+            this.maxInMemoryRows = maxRows;
             return this;
         }
 
@@ -86,13 +113,45 @@ public class JpqlReadService<T> implements ReadService<T> {
             return this;
         }
 
+        /**
+         * @throws IllegalStateException se só {@code findAll} estiver configurado: a paginação
+         *                               em memória exige {@code count} para recusar views grandes
+         *                               antes de carregá-las
+         */
         public JpqlReadService<T> build() {
             if (this.findAllPagedFn == null) {
-                this.findAllPagedFn = unsupportedFn("findAll(Pageable)");
+                if (findAllSet && countFn == null) {
+                    throw new IllegalStateException(
+                            "Paginação em memória exige count(). Configure count() ou findAllPaged.");
+                }
+                this.findAllPagedFn = findAllSet
+                        ? inMemoryPaged(findAllFn, countFn, maxInMemoryRows)
+                        : unsupportedFn("findAll(Pageable)");
             }
             return new JpqlReadService<>(this);
         }
 
+        /**
+         * Fallback para views pequenas: carrega tudo e recorta a página.
+         * O limite é verificado pelo {@code count} antes da carga.
+         */
+        private static <T> Function<Pageable, Page<T>> inMemoryPaged(
+                Supplier<List<T>> allFn, LongSupplier countFn, int maxRows
+        ) {
+            return pageable -> {
+                if (countFn.getAsLong() > maxRows) {
+                    throw new IllegalArgumentException(
+                            "Paginação em memória não suportada acima de " + maxRows
+                                    + " registros. Refine os filtros da consulta.");
+                }
+                var all = allFn.get();
+                int start = (int) pageable.getOffset();
+                int end = Math.min(start + pageable.getPageSize(), all.size());
+                var content = start >= all.size() ? List.<T>of() : all.subList(start, end);
+                return new PageImpl<>(content, pageable, all.size());
+            };
+        }
+
         private static <R> Supplier<R> unsupportedSupplier(String method) {
             return () -> {
                 throw new UnsupportedOperationException(method + " não configurado para esta view.");
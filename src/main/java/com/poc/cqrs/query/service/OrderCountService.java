@@ -0,0 +1,142 @@
+package com.poc.cqrs.query.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.poc.cqrs.config.ReadModelMode;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * Monta as páginas das listagens de pedidos conforme a {@link CountStrategy}.
+ * A página é sempre buscada como {@link Slice} (uma linha a mais, sem COUNT);
+ * o total só é obtido quando a estratégia pede e não pode ser deduzido da
+ * própria página.
+ */
+@Service
+public class OrderCountService {
+
+    /** Header da resposta com a estratégia que produziu o total. */
+    public static final String STRATEGY_HEADER = "X-Count-Strategy";
+
+    /** Origem da listagem, para a estimativa e a chave do cache. */
+    public enum Source {
+        VIEW,
+        JPQL
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ObjectMapper objectMapper;
+    private final String viewTableName;
+    private final CountStrategy defaultStrategy;
+    private final Cache<CountKey, Long> counts;
+
+    public OrderCountService(
+            JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            @Value("${cqrs.read-model.mode:materialized-view}") ReadModelMode mode,
+            @Value("${cqrs.query.count.default-strategy:exact}") String defaultStrategy,
+            @Value("${cqrs.query.count.cache-max-size:1000}") long cacheMaxSize,
+            @Value("${cqrs.query.count.cache-ttl:30s}") Duration cacheTtl
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        // Read-only para ir ao pool de queries, como as demais leituras
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.objectMapper = objectMapper;
+        this.viewTableName = mode.tableName();
+        this.defaultStrategy = CountStrategy.from(defaultStrategy, CountStrategy.EXACT);
+        this.counts = CaffeineCacheMetrics.monitor(meterRegistry, Caffeine.newBuilder()
+                .maximumSize(cacheMaxSize)
+                .expireAfterWrite(cacheTtl)
+                .recordStats()
+                .<CountKey, Long>build(), "orderCount");
+    }
+
+    public CountStrategy resolve(String count) {
+        return CountStrategy.from(count, defaultStrategy);
+    }
+
+    /**
+     * @param sliceFn    busca da página sem COUNT
+     * @param exactCount COUNT exato com os mesmos filtros
+     * @return {@code Slice} para {@link CountStrategy#NONE}, {@code Page} para as demais
+     */
+    public <T> Slice<T> page(CountStrategy strategy, Source source, String status, String customer,
+                             Pageable pageable, Function<Pageable, Slice<T>> sliceFn, LongSupplier exactCount) {
+        Slice<T> slice = sliceFn.apply(pageable);
+        if (strategy == CountStrategy.NONE) {
+            return slice;
+        }
+        if (!slice.hasNext() && (slice.hasContent() || pageable.getOffset() == 0)) {
+            // Última página: o total sai da própria página, em qualquer estratégia
+            return new PageImpl<>(slice.getContent(), pageable, pageable.getOffset() + slice.getNumberOfElements());
+        }
+        LongSupplier total = switch (strategy) {
+            case EXACT -> exactCount;
+            case CACHED -> () -> counts.get(CountKey.of(source, status, customer), key -> exactCount.getAsLong());
+            // A estimativa não pode contradizer a página: se há próxima, há pelo menos mais um registro
+            case ESTIMATED -> () -> Math.max(estimate(source, status, customer),
+                    pageable.getOffset() + slice.getNumberOfElements() + (slice.hasNext() ? 1 : 0));
+            case NONE -> throw new IllegalStateException("Sem total para " + strategy);
+        };
+        return PageableExecutionUtils.getPage(slice.getContent(), pageable, total);
+    }
+
+    /**
+     * Linhas estimadas pelo planner para os filtros, a partir das estatísticas
+     * da tabela (pg_class.reltuples e histogramas do ANALYZE). Não lê as linhas.
+     */
+    public long estimate(Source source, String status, String customer) {
+        var sql = new StringBuilder("EXPLAIN (FORMAT JSON) SELECT 1 FROM ")
+                .append(source == Source.VIEW ? viewTableName : "orders");
+        var args = new ArrayList<Object>();
+        var conditions = new ArrayList<String>();
+        if (status != null && !status.isBlank()) {
+            conditions.add("status = ?");
+            args.add(status.toUpperCase());
+        }
+        if (customer != null && !customer.isBlank()) {
+            conditions.add("customer_name ILIKE ?");
+            args.add("%" + customer + "%");
+        }
+        if (!conditions.isEmpty()) {
+            sql.append(" WHERE ").append(String.join(" AND ", conditions));
+        }
+
+        String plan = readOnlyTransaction.execute(tx ->
+                jdbcTemplate.queryForObject(sql.toString(), String.class, args.toArray()));
+        try {
+            return objectMapper.readTree(plan).path(0).path("Plan").path("Plan Rows").asLong();
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Plano de execução inesperado: " + plan, ex);
+        }
+    }
+
+    private record CountKey(Source source, String status, String customer) {
+
+        static CountKey of(Source source, String status, String customer) {
+            return new CountKey(source,
+                    status == null || status.isBlank() ? null : status.toUpperCase(),
+                    customer == null || customer.isBlank() ? null : customer.toLowerCase());
+        }
+    }
+}
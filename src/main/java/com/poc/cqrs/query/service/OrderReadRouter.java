@@ -0,0 +1,122 @@
+package com.poc.cqrs.query.service;
+
+import com.poc.cqrs.command.service.MaterializedViewRefreshScheduler;
+import com.poc.cqrs.command.service.OrderEventOutbox;
+import com.poc.cqrs.config.ReplicaLagMonitor;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Decide, por requisição, entre o read model e o JPQL sobre as tabelas de
+ * escrita, conforme a defasagem aceita pelo cliente.
+ * <p>
+ * A defasagem do read model vem de onde ele é mantido: com o outbox, do evento
+ * pendente mais antigo; no modo Materialized View, do início do último refresh
+ * concluído neste nó; no modo incremental, é zero (a projeção é gravada junto com o command).
+ * Como o read model é lido pelo pool de queries, soma-se a isso o atraso da
+ * réplica; o JPQL de fallback é lido no primário e está sempre atualizado.
+ */
+@Component
+public class OrderReadRouter {
+
+    public enum Source {
+        VIEW,
+        JPQL;
+
+        public String headerValue() {
+            return name().toLowerCase();
+        }
+    }
+
+    /**
+     * @param maxStaleness defasagem máxima aceita, já com o padrão aplicado
+     */
+    public record Route(Source source, LocalDateTime dataAsOf, Duration maxStaleness) {
+    }
+
+    private final ObjectProvider<OrderEventOutbox> eventOutbox;
+    private final ObjectProvider<MaterializedViewRefreshScheduler> refreshScheduler;
+    private final ObjectProvider<ReplicaLagMonitor> replicaLagMonitor;
+    private final Duration defaultMaxStaleness;
+    private final MeterRegistry meterRegistry;
+    private final DistributionSummary observedStaleness;
+
+    public OrderReadRouter(
+            ObjectProvider<OrderEventOutbox> eventOutbox,
+            ObjectProvider<MaterializedViewRefreshScheduler> refreshScheduler,
+            ObjectProvider<ReplicaLagMonitor> replicaLagMonitor,
+            MeterRegistry meterRegistry,
+            @Value("${cqrs.query.routing.default-max-staleness:5s}") Duration defaultMaxStaleness
+    ) {
+        this.eventOutbox = eventOutbox;
+        this.refreshScheduler = refreshScheduler;
+        this.replicaLagMonitor = replicaLagMonitor;
+        this.meterRegistry = meterRegistry;
+        this.defaultMaxStaleness = defaultMaxStaleness;
+        this.observedStaleness = DistributionSummary.builder("cqrs.query.routing.staleness")
+                .description("Defasagem do read model vista a cada decisão de roteamento")
+                .baseUnit("seconds")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    /**
+     * @param maxStaleness defasagem máxima aceita; {@code null} usa {@code cqrs.query.routing.default-max-staleness}
+     */
+    public Route route(Duration maxStaleness, String endpoint) {
+        Duration bound = maxStaleness != null ? maxStaleness : defaultMaxStaleness;
+        if (bound.isNegative()) {
+            throw new IllegalArgumentException("max-staleness não pode ser negativo: " + maxStaleness);
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        Duration staleness = readModelStaleness(now).plus(replicaLag());
+        LocalDateTime asOf = now.minus(staleness);
+        observedStaleness.record(staleness.toMillis() / 1000.0);
+
+        Source source = staleness.compareTo(bound) <= 0 ? Source.VIEW : Source.JPQL;
+        Counter.builder("cqrs.query.routing")
+                .description("Consultas roteadas para o read model ou para o JPQL")
+                .tag("source", source.headerValue())
+                .tag("endpoint", endpoint)
+                .register(meterRegistry)
+                .increment();
+        return new Route(source, source == Source.VIEW ? asOf : now, bound);
+    }
+
+    /**
+     * Até quando o read model está atualizado neste momento.
+     */
+    public LocalDateTime readModelAsOf() {
+        LocalDateTime now = LocalDateTime.now();
+        return now.minus(readModelStaleness(now).plus(replicaLag()));
+    }
+
+    /**
+     * Atraso das leituras read-only (pool de queries) em relação ao primário.
+     */
+    public Duration replicaLag() {
+        var monitor = replicaLagMonitor.getIfAvailable();
+        return monitor != null ? monitor.readLag() : Duration.ZERO;
+    }
+
+    private Duration readModelStaleness(LocalDateTime now) {
+        var outbox = eventOutbox.getIfAvailable();
+        if (outbox != null) {
+            return outbox.oldestPendingAge().orElse(Duration.ZERO);
+        }
+        var scheduler = refreshScheduler.getIfAvailable();
+        if (scheduler != null) {
+            LocalDateTime asOf = scheduler.dataAsOf();
+            return asOf.isAfter(now) ? Duration.ZERO : Duration.between(asOf, now);
+        }
+        return Duration.ZERO;
+    }
+}
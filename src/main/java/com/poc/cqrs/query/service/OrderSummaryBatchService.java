@@ -0,0 +1,89 @@
+package com.poc.cqrs.query.service;
+
+import com.poc.cqrs.config.ReadModelMode;
+import com.poc.cqrs.query.dto.BatchGetResult;
+import com.poc.cqrs.query.dto.OrderSummaryJpqlView;
+import com.poc.cqrs.query.entity.OrderSummaryView;
+import com.poc.cqrs.query.repository.OrderReadRepository;
+import jakarta.persistence.EntityManager;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Busca de vários pedidos por id numa única consulta, para telas e serviços
+ * que já conhecem os ids. Passa pelo {@link OrderSummaryCache}: só os ids
+ * ausentes do cache vão ao banco.
+ */
+@Service
+@Transactional(readOnly = true)
+public class OrderSummaryBatchService {
+
+    private final EntityManager entityManager;
+    private final OrderReadRepository readRepository;
+    private final OrderSummaryCache summaryCache;
+    private final String viewTableName;
+    private final int maxIds;
+
+    public OrderSummaryBatchService(
+            EntityManager entityManager,
+            OrderReadRepository readRepository,
+            OrderSummaryCache summaryCache,
+            @Value("${cqrs.read-model.mode:materialized-view}") ReadModelMode mode,
+            @Value("${cqrs.query.batch-get.max-ids:200}") int maxIds
+    ) {
+        this.entityManager = entityManager;
+        this.readRepository = readRepository;
+        this.summaryCache = summaryCache;
+        this.viewTableName = mode.tableName();
+        this.maxIds = maxIds;
+    }
+
+    public BatchGetResult<OrderSummaryView> getViews(List<UUID> orderIds) {
+        validate(orderIds);
+        return BatchGetResult.of(orderIds, summaryCache.getViews(orderIds, this::findViews));
+    }
+
+    public BatchGetResult<OrderSummaryJpqlView> getJpqls(List<UUID> orderIds) {
+        validate(orderIds);
+        return BatchGetResult.of(orderIds, summaryCache.getJpqls(orderIds, ids ->
+                byId(readRepository.findSummariesByIds(ids), OrderSummaryJpqlView::orderId)));
+    }
+
+    /**
+     * Um único parâmetro array ({@code = ANY}) em vez de um IN com um parâmetro
+     * por id: o SQL é o mesmo para qualquer quantidade de ids.
+     */
+    @SuppressWarnings("unchecked")
+    private Map<UUID, OrderSummaryView> findViews(Collection<UUID> orderIds) {
+        List<OrderSummaryView> rows = entityManager.createNativeQuery(
+                        "SELECT * FROM " + viewTableName + " WHERE order_id = ANY (:orderIds)",
+                        OrderSummaryView.class)
+                .setParameter("orderIds", orderIds.toArray(UUID[]::new))
+                .getResultList();
+        return byId(rows, OrderSummaryView::getOrderId);
+    }
+
+    private void validate(List<UUID> orderIds) {
+        if (orderIds == null || orderIds.isEmpty()) {
+            throw new IllegalArgumentException("Informe ao menos um id de pedido");
+        }
+        if (orderIds.size() > maxIds) {
+            throw new IllegalArgumentException("Máximo de " + maxIds + " ids por requisição, recebidos " + orderIds.size());
+        }
+        if (orderIds.contains(null)) {
+            throw new IllegalArgumentException("A lista de ids não pode conter valores nulos");
+        }
+    }
+
+    private static <T> Map<UUID, T> byId(List<T> rows, Function<T, UUID> idOf) {
+        return rows.stream().collect(Collectors.toMap(idOf, Function.identity()));
+    }
+}
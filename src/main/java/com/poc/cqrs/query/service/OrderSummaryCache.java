@@ -0,0 +1,189 @@
+package com.poc.cqrs.query.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.poc.cqrs.command.service.MaterializedViewRefresher.OrderDataChangedEvent;
+import com.poc.cqrs.command.service.OrderSummaryRefreshedEvent;
+import com.poc.cqrs.query.dto.OrderSummaryJpqlView;
+import com.poc.cqrs.query.entity.OrderSummaryView;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Cache read-through das consultas de pedido por id.
+ * <p>
+ * O TTL limita a idade de qualquer entrada. Além disso, as entradas são
+ * invalidadas por id no commit do command e, para o read model, de novo
+ * quando a alteração fica visível nele (refresh da view ou lote do outbox),
+ * para não guardar a versão antiga lida entre o commit e a projeção.
+ * <p>
+ * As invalidações só alcançam este nó. Por isso cada entrada guarda até quando
+ * os dados dela estavam atualizados ao ser carregada: o instante da leitura
+ * menos o atraso da réplica, para o JPQL, e o do read model naquele momento,
+ * para a view.
+ */
+@Component
+public class OrderSummaryCache {
+
+    /**
+     * Valor em cache e até quando ele estava atualizado quando foi carregado.
+     */
+    public record Entry<V>(V value, LocalDateTime dataAsOf) {
+    }
+
+    private final boolean enabled;
+    private final Duration ttl;
+    private final OrderReadRouter router;
+    private final Cache<UUID, Entry<OrderSummaryView>> viewCache;
+    private final Cache<UUID, Entry<OrderSummaryJpqlView>> jpqlCache;
+
+    public OrderSummaryCache(
+            MeterRegistry meterRegistry,
+            OrderReadRouter router,
+            @Value("${cqrs.query.cache.enabled:true}") boolean enabled,
+            @Value("${cqrs.query.cache.max-size:10000}") long maxSize,
+            @Value("${cqrs.query.cache.ttl:5s}") Duration ttl
+    ) {
+        this.enabled = enabled;
+        this.ttl = ttl;
+        this.router = router;
+        this.viewCache = CaffeineCacheMetrics.monitor(meterRegistry, newCache(maxSize, ttl), "orderSummaryView");
+        this.jpqlCache = CaffeineCacheMetrics.monitor(meterRegistry, newCache(maxSize, ttl), "orderSummaryJpql");
+    }
+
+    private static <V> Cache<UUID, V> newCache(long maxSize, Duration ttl) {
+        return Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Idade máxima de uma entrada.
+     */
+    public Duration ttl() {
+        return ttl;
+    }
+
+    public OrderSummaryView getView(UUID orderId, Function<UUID, OrderSummaryView> loader) {
+        return getViewEntry(orderId, loader).value();
+    }
+
+    public Entry<OrderSummaryView> getViewEntry(UUID orderId, Function<UUID, OrderSummaryView> loader) {
+        if (!enabled) {
+            return loadView(orderId, loader);
+        }
+        return viewCache.get(orderId, id -> loadView(id, loader));
+    }
+
+    /**
+     * Entrada já em cache, sem consultar o banco; {@code null} se ausente.
+     */
+    public OrderSummaryView peekView(UUID orderId) {
+        return enabled ? value(viewCache.getIfPresent(orderId)) : null;
+    }
+
+    public OrderSummaryJpqlView peekJpql(UUID orderId) {
+        return enabled ? value(jpqlCache.getIfPresent(orderId)) : null;
+    }
+
+    /**
+     * Pedidos inexistentes não são guardados: o loader retorna null e a
+     * próxima consulta vai ao banco.
+     */
+    public Optional<OrderSummaryJpqlView> getJpql(UUID orderId, Function<UUID, Optional<OrderSummaryJpqlView>> loader) {
+        return getJpqlEntry(orderId, loader).map(Entry::value);
+    }
+
+    public Optional<Entry<OrderSummaryJpqlView>> getJpqlEntry(UUID orderId,
+                                                              Function<UUID, Optional<OrderSummaryJpqlView>> loader) {
+        if (!enabled) {
+            return loadJpql(orderId, loader);
+        }
+        return Optional.ofNullable(jpqlCache.get(orderId, id -> loadJpql(id, loader).orElse(null)));
+    }
+
+    /**
+     * Vários ids de uma vez: os ausentes do cache são carregados numa única
+     * chamada ao {@code loader}. Ids sem registro não aparecem no mapa retornado.
+     */
+    public Map<UUID, OrderSummaryView> getViews(Collection<UUID> orderIds,
+                                                Function<Set<UUID>, Map<UUID, OrderSummaryView>> loader) {
+        if (!enabled) {
+            return loader.apply(Set.copyOf(orderIds));
+        }
+        return values(viewCache.getAll(orderIds, missing -> {
+            LocalDateTime asOf = router.readModelAsOf();
+            return entries(loader.apply(Set.copyOf(missing)), asOf);
+        }));
+    }
+
+    public Map<UUID, OrderSummaryJpqlView> getJpqls(Collection<UUID> orderIds,
+                                                    Function<Set<UUID>, Map<UUID, OrderSummaryJpqlView>> loader) {
+        if (!enabled) {
+            return loader.apply(Set.copyOf(orderIds));
+        }
+        return values(jpqlCache.getAll(orderIds, missing -> {
+            LocalDateTime asOf = jpqlAsOf();
+            return entries(loader.apply(Set.copyOf(missing)), asOf);
+        }));
+    }
+
+    // O momento é obtido antes da leitura: o dado lido é no mínimo tão novo quanto ele
+    private Entry<OrderSummaryView> loadView(UUID orderId, Function<UUID, OrderSummaryView> loader) {
+        LocalDateTime asOf = router.readModelAsOf();
+        return new Entry<>(loader.apply(orderId), asOf);
+    }
+
+    private Optional<Entry<OrderSummaryJpqlView>> loadJpql(
+            UUID orderId, Function<UUID, Optional<OrderSummaryJpqlView>> loader) {
+        LocalDateTime asOf = jpqlAsOf();
+        return loader.apply(orderId).map(summary -> new Entry<>(summary, asOf));
+    }
+
+    // Os loaders usam o repositório read-only, que pode estar numa réplica
+    private LocalDateTime jpqlAsOf() {
+        return LocalDateTime.now().minus(router.replicaLag());
+    }
+
+    private static <V> V value(Entry<V> entry) {
+        return entry != null ? entry.value() : null;
+    }
+
+    private static <V> Map<UUID, Entry<V>> entries(Map<UUID, V> values, LocalDateTime asOf) {
+        return values.entrySet().stream()
+                .collect(Collectors.toMap(Map.Entry::getKey, e -> new Entry<>(e.getValue(), asOf)));
+    }
+
+    private static <V> Map<UUID, V> values(Map<UUID, Entry<V>> entries) {
+        return entries.entrySet().stream()
+                .collect(Collectors.toMap(Map.Entry::getKey, e -> e.getValue().value()));
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onOrderDataChanged(OrderDataChangedEvent event) {
+        jpqlCache.invalidateAll(event.orderIds());
+        viewCache.invalidateAll(event.orderIds());
+    }
+
+    @EventListener
+    public void onOrderSummaryRefreshed(OrderSummaryRefreshedEvent event) {
+        viewCache.invalidateAll(event.orderIds());
+    }
+}
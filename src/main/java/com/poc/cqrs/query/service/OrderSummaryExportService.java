@@ -0,0 +1,179 @@
+package com.poc.cqrs.query.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.poc.cqrs.config.ReadModelMode;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+
+/**
+ * Exporta o read model de pedidos direto do cursor JDBC para o stream de saída.
+ * O driver do PostgreSQL só usa cursor no servidor com fetch size definido e
+ * dentro de uma transação, então o uso de memória não depende do volume exportado.
+ */
+@Service
+public class OrderSummaryExportService {
+
+    private static final String COLUMNS = """
+            order_id, customer_name, status, discount, total_items,
+            subtotal, total_with_discount, created_at, updated_at""";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final String tableName;
+
+    public OrderSummaryExportService(
+            DataSource dataSource,
+            ObjectMapper objectMapper,
+            @Value("${cqrs.read-model.mode:materialized-view}") ReadModelMode mode,
+            @Value("${cqrs.query.export.fetch-size:1000}") int fetchSize
+    ) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(fetchSize);
+        this.objectMapper = objectMapper;
+        this.tableName = mode.tableName();
+    }
+
+    public enum Format {
+        NDJSON("application/x-ndjson", "ndjson"),
+        CSV("text/csv", "csv");
+
+        private final String contentType;
+        private final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String contentType() { return contentType; }
+        public String extension() { return extension; }
+
+        public static Format from(String value) {
+            if (value == null || value.isBlank()) {
+                return NDJSON;
+            }
+            try {
+                return valueOf(value.toUpperCase());
+            } catch (IllegalArgumentException ex) {
+                throw new IllegalArgumentException("Formato de exportação inválido: " + value);
+            }
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public void export(String status, String customer, Format format, OutputStream out) throws IOException {
+        var sql = new StringBuilder("SELECT ").append(COLUMNS).append(" FROM ").append(tableName);
+        var args = new ArrayList<Object>();
+        var conditions = new ArrayList<String>();
+        if (status != null && !status.isBlank()) {
+            conditions.add("status = ?");
+            args.add(status.toUpperCase());
+        }
+        if (customer != null && !customer.isBlank()) {
+            conditions.add("customer_name ILIKE ?");
+            args.add("%" + customer + "%");
+        }
+        if (!conditions.isEmpty()) {
+            sql.append(" WHERE ").append(String.join(" AND ", conditions));
+        }
+        sql.append(" ORDER BY created_at DESC, order_id DESC");
+
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        try {
+            switch (format) {
+                case NDJSON -> writeNdjson(sql.toString(), args.toArray(), writer);
+                case CSV -> writeCsv(sql.toString(), args.toArray(), writer);
+            }
+        } catch (UncheckedIOException ex) {
+            throw ex.getCause();
+        }
+        writer.flush();
+    }
+
+    private void writeNdjson(String sql, Object[] args, Writer writer) throws IOException {
+        JsonGenerator json = objectMapper.getFactory().createGenerator(writer);
+        // O writer é de quem chamou: o gerador não deve fechá-lo
+        json.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        // Sem o espaço padrão entre valores raiz: a quebra de linha é escrita abaixo
+        json.setRootValueSeparator(null);
+
+        jdbcTemplate.query(sql, rs -> {
+            try {
+                json.writeStartObject();
+                json.writeStringField("orderId", rs.getString("order_id"));
+                json.writeStringField("customerName", rs.getString("customer_name"));
+                json.writeStringField("status", rs.getString("status"));
+                json.writeNumberField("discount", rs.getBigDecimal("discount"));
+                json.writeNumberField("totalItems", rs.getLong("total_items"));
+                json.writeNumberField("subtotal", rs.getBigDecimal("subtotal"));
+                json.writeNumberField("totalWithDiscount", rs.getBigDecimal("total_with_discount"));
+                json.writeStringField("createdAt", timestamp(rs, "created_at"));
+                json.writeStringField("updatedAt", timestamp(rs, "updated_at"));
+                json.writeEndObject();
+                json.writeRaw('\n');
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        }, args);
+
+        json.flush();
+    }
+
+    private void writeCsv(String sql, Object[] args, Writer writer) throws IOException {
+        writer.write("orderId,customerName,status,discount,totalItems,subtotal,totalWithDiscount,createdAt,updatedAt\n");
+
+        jdbcTemplate.query(sql, rs -> {
+            try {
+                writer.write(rs.getString("order_id"));
+                writer.write(',');
+                writer.write(csv(rs.getString("customer_name")));
+                writer.write(',');
+                writer.write(rs.getString("status"));
+                writer.write(',');
+                writer.write(rs.getBigDecimal("discount").toPlainString());
+                writer.write(',');
+                writer.write(Long.toString(rs.getLong("total_items")));
+                writer.write(',');
+                writer.write(rs.getBigDecimal("subtotal").toPlainString());
+                writer.write(',');
+                writer.write(rs.getBigDecimal("total_with_discount").toPlainString());
+                writer.write(',');
+                writer.write(timestamp(rs, "created_at"));
+                writer.write(',');
+                writer.write(timestamp(rs, "updated_at"));
+                writer.write('\n');
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        }, args);
+    }
+
+    private static String timestamp(ResultSet rs, String column) throws SQLException {
+        return rs.getObject(column, LocalDateTime.class).toString();
+    }
+
+    private static String csv(String value) {
+        // RFC 4180: aspas em valores com vírgula, aspas, LF ou CR
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0
+                && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
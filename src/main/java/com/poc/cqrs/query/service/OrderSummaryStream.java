@@ -0,0 +1,307 @@
+package com.poc.cqrs.query.service;
+
+import com.poc.cqrs.command.service.OrderChangeNotifier;
+import com.poc.cqrs.query.entity.OrderSummaryView;
+import com.poc.cqrs.query.repository.OrderSummaryViewRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Stream SSE das linhas de order_summary_mview alteradas.
+ * <p>
+ * Cada nó mantém uma única conexão em LISTEN no canal do
+ * {@link OrderChangeNotifier}, fora do pool, e repassa as linhas alteradas a
+ * todos os assinantes. Cada assinante tem uma fila limitada, esvaziada por uma
+ * virtual thread própria: um cliente lento não atrasa os outros, e quando a
+ * fila enche ele é desconectado em vez de acumular eventos em memória.
+ * As linhas avisadas são lidas no primário, nunca na réplica, que ainda pode
+ * estar com a versão anterior. Avisos emitidos enquanto a conexão LISTEN está
+ * caída são perdidos; o cliente deve reconsultar a lista ao (re)conectar.
+ */
+@Component
+@ConditionalOnProperty(name = "cqrs.query.stream.enabled", havingValue = "true", matchIfMissing = true)
+public class OrderSummaryStream {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderSummaryStream.class);
+
+    private static final Object HEARTBEAT = new Object();
+    private static final int POLL_TIMEOUT_MILLIS = 500;
+    private static final long RECONNECT_DELAY_MILLIS = 1000;
+    // Limita o IN da consulta: uma transição em massa pode avisar milhares de ids de uma vez
+    private static final int IDS_PER_QUERY = 1000;
+
+    private final OrderSummaryViewRepository viewRepository;
+    private final DataSourceProperties dataSourceProperties;
+    private final TransactionTemplate primaryRead;
+    private final int queueSize;
+    private final int maxSubscribers;
+    private final Duration timeout;
+    private final Set<Subscriber> subscribers = new CopyOnWriteArraySet<>();
+    private final ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor();
+    private final Counter slowDisconnects;
+    private final Counter notificationsReceived;
+
+    private volatile boolean listening;
+    private volatile Connection listenConnection;
+    private Thread listenerThread;
+
+    public OrderSummaryStream(
+            OrderSummaryViewRepository viewRepository,
+            DataSourceProperties dataSourceProperties,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${cqrs.query.stream.queue-size:256}") int queueSize,
+            @Value("${cqrs.query.stream.max-subscribers:1000}") int maxSubscribers,
+            @Value("${cqrs.query.stream.timeout:30m}") Duration timeout
+    ) {
+        this.viewRepository = viewRepository;
+        this.dataSourceProperties = dataSourceProperties;
+        // Transação de escrita: com o roteamento ligado, é ela que leva a leitura ao primário
+        this.primaryRead = new TransactionTemplate(transactionManager);
+        this.queueSize = queueSize;
+        this.maxSubscribers = maxSubscribers;
+        this.timeout = timeout;
+
+        Gauge.builder("cqrs.stream.subscribers", subscribers, Set::size)
+                .description("Clientes conectados ao stream SSE de pedidos")
+                .register(meterRegistry);
+        this.slowDisconnects = Counter.builder("cqrs.stream.disconnects.slow")
+                .description("Clientes desconectados por não acompanhar o ritmo dos eventos")
+                .register(meterRegistry);
+        this.notificationsReceived = Counter.builder("cqrs.stream.notifications")
+                .description("Avisos recebidos no canal LISTEN")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Registra um assinante. Os filtros seguem os da listagem: status exato e
+     * cliente por busca parcial, ambos sem diferenciar maiúsculas.
+     */
+    public SseEmitter subscribe(String status, String customer) {
+        if (subscribers.size() >= maxSubscribers) {
+            throw new IllegalStateException("Limite de " + maxSubscribers + " conexões de stream atingido");
+        }
+        var emitter = new SseEmitter(timeout.toMillis());
+        var subscriber = new Subscriber(emitter, status, customer, new ArrayBlockingQueue<>(queueSize));
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> close(subscriber));
+        emitter.onError(ex -> close(subscriber));
+        subscribers.add(subscriber);
+        return emitter;
+    }
+
+    @PostConstruct
+    public void start() {
+        listening = true;
+        listenerThread = new Thread(this::listen, "order-summary-listener");
+        listenerThread.setDaemon(true);
+        listenerThread.start();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        listening = false;
+        closeQuietly(listenConnection);
+        listenerThread.interrupt();
+        subscribers.forEach(this::close);
+        senders.shutdownNow();
+    }
+
+    /**
+     * Comentário periódico: mantém a conexão aberta em proxies e detecta
+     * clientes que já foram embora.
+     */
+    @Scheduled(fixedDelayString = "${cqrs.query.stream.heartbeat:PT15S}")
+    public void heartbeat() {
+        for (Subscriber subscriber : subscribers) {
+            enqueue(subscriber, HEARTBEAT);
+        }
+    }
+
+    private void listen() {
+        while (listening) {
+            try (Connection connection = DriverManager.getConnection(
+                    dataSourceProperties.determineUrl(),
+                    dataSourceProperties.determineUsername(),
+                    dataSourceProperties.determinePassword())) {
+                listenConnection = connection;
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + OrderChangeNotifier.CHANNEL);
+                }
+                var pgConnection = connection.unwrap(PGConnection.class);
+                while (listening) {
+                    PGNotification[] notifications = pgConnection.getNotifications(POLL_TIMEOUT_MILLIS);
+                    if (notifications != null && notifications.length > 0) {
+                        dispatch(notifications);
+                    }
+                }
+            } catch (SQLException | RuntimeException ex) {
+                if (!listening) {
+                    return;
+                }
+                log.warn("Conexão LISTEN do stream de pedidos caiu, reconectando", ex);
+                try {
+                    Thread.sleep(RECONNECT_DELAY_MILLIS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            } finally {
+                listenConnection = null;
+            }
+        }
+    }
+
+    private void dispatch(PGNotification[] notifications) {
+        notificationsReceived.increment(notifications.length);
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        Set<UUID> orderIds = new HashSet<>();
+        for (PGNotification notification : notifications) {
+            for (String id : notification.getParameter().split(",")) {
+                orderIds.add(UUID.fromString(id));
+            }
+        }
+
+        // Uma leitura por lote de avisos, qualquer que seja o número de assinantes
+        List<OrderSummaryView> rows;
+        try {
+            rows = primaryRead.execute(status -> load(orderIds));
+        } catch (RuntimeException ex) {
+            // Não derruba a conexão LISTEN: só este lote de avisos é perdido
+            log.warn("Falha ao ler {} pedido(s) avisado(s) para o stream", orderIds.size(), ex);
+            return;
+        }
+        for (Subscriber subscriber : subscribers) {
+            for (OrderSummaryView row : rows) {
+                if (subscriber.matches(row) && !enqueue(subscriber, row)) {
+                    break;
+                }
+            }
+        }
+    }
+
+    private List<OrderSummaryView> load(Set<UUID> orderIds) {
+        List<OrderSummaryView> rows = new ArrayList<>(orderIds.size());
+        List<UUID> chunk = new ArrayList<>(Math.min(orderIds.size(), IDS_PER_QUERY));
+        for (UUID orderId : orderIds) {
+            chunk.add(orderId);
+            if (chunk.size() == IDS_PER_QUERY) {
+                rows.addAll(viewRepository.findAllById(chunk));
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            rows.addAll(viewRepository.findAllById(chunk));
+        }
+        return rows;
+    }
+
+    private boolean enqueue(Subscriber subscriber, Object event) {
+        if (!subscriber.queue().offer(event)) {
+            slowDisconnects.increment();
+            log.debug("Cliente do stream de pedidos não acompanhou os eventos e foi desconectado");
+            close(subscriber);
+            return false;
+        }
+        if (subscriber.draining().compareAndSet(false, true)) {
+            senders.execute(() -> drain(subscriber));
+        }
+        return true;
+    }
+
+    private void drain(Subscriber subscriber) {
+        try {
+            Object event;
+            while ((event = subscriber.queue().poll()) != null) {
+                if (event == HEARTBEAT) {
+                    subscriber.emitter().send(SseEmitter.event().comment("heartbeat"));
+                } else {
+                    var row = (OrderSummaryView) event;
+                    subscriber.emitter().send(SseEmitter.event()
+                            .name("order")
+                            .id(row.getOrderId().toString())
+                            .data(row));
+                }
+            }
+        } catch (IOException | IllegalStateException ex) {
+            // Cliente desconectado ou emitter já encerrado
+            close(subscriber);
+            return;
+        } finally {
+            subscriber.draining().set(false);
+        }
+        // Evento enfileirado entre o último poll e a liberação do flag
+        if (!subscriber.queue().isEmpty() && subscriber.draining().compareAndSet(false, true)) {
+            senders.execute(() -> drain(subscriber));
+        }
+    }
+
+    private void close(Subscriber subscriber) {
+        if (subscribers.remove(subscriber)) {
+            subscriber.queue().clear();
+            subscriber.emitter().complete();
+        }
+    }
+
+    private static void closeQuietly(Connection connection) {
+        if (connection == null) {
+            return;
+        }
+        try {
+            connection.close();
+        } catch (SQLException ignored) {
+            // encerrando
+        }
+    }
+
+    private record Subscriber(SseEmitter emitter, String status, String customer,
+                              BlockingQueue<Object> queue, AtomicBoolean draining) {
+
+        Subscriber(SseEmitter emitter, String status, String customer, BlockingQueue<Object> queue) {
+            this(emitter, status, customer, queue, new AtomicBoolean());
+        }
+
+        boolean matches(OrderSummaryView row) {
+            if (status != null && !status.isBlank() && !status.equalsIgnoreCase(row.getStatus())) {
+                return false;
+            }
+            return customer == null || customer.isBlank()
+                    || row.getCustomerName().toLowerCase().contains(customer.toLowerCase());
+        }
+    }
+}
@@ -1,7 +1,10 @@
 package com.poc.cqrs.query.service;
 
+import com.poc.cqrs.query.entity.OrderStatsDaily;
 import com.poc.cqrs.query.entity.OrderSummaryView;
+import com.poc.cqrs.query.repository.OrderStatsDailyRepository;
 import com.poc.cqrs.query.repository.OrderSummaryViewRepository;
+import jakarta.persistence.EntityManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
@@ -12,8 +15,17 @@ public class QueryServiceConfig {
 
     @Bean
     public EntityReadService<OrderSummaryView, UUID> orderSummaryReadService(
-            OrderSummaryViewRepository repository
+            OrderSummaryViewRepository repository,
+            EntityManager entityManager
     ) {
-        return new EntityReadService<>(repository);
+        return new EntityReadService<>(repository, entityManager, OrderSummaryView.class);
+    }
+
+    @Bean
+    public EntityReadService<OrderStatsDaily, OrderStatsDaily.Key> orderStatsReadService(
+            OrderStatsDailyRepository repository,
+            EntityManager entityManager
+    ) {
+        return new EntityReadService<>(repository, entityManager, OrderStatsDaily.class);
     }
 }
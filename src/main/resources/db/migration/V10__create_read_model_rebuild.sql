@@ -0,0 +1,30 @@
+-- =====================================================
+-- CQRS - READ SIDE: Reconstrução paralela do read model
+-- Cada rebuild divide os pedidos em faixas de order_id.
+-- Os workers carregam as faixas em paralelo numa tabela
+-- sombra e marcam cada faixa como concluída na mesma
+-- transação, então um rebuild interrompido pode ser retomado
+-- a partir das faixas pendentes.
+-- =====================================================
+
+CREATE TABLE read_model_rebuilds
+(
+    id          BIGSERIAL PRIMARY KEY,
+    state       VARCHAR(20) NOT NULL,
+    workers     INT         NOT NULL,
+    started_at  TIMESTAMP   NOT NULL DEFAULT NOW(),
+    finished_at TIMESTAMP,
+    error       TEXT
+);
+
+CREATE TABLE read_model_rebuild_chunks
+(
+    rebuild_id  BIGINT    NOT NULL REFERENCES read_model_rebuilds (id) ON DELETE CASCADE,
+    chunk_no    INT       NOT NULL,
+    range_start UUID      NOT NULL,
+    range_end   UUID      NOT NULL,
+    done        BOOLEAN   NOT NULL DEFAULT FALSE,
+    row_count   BIGINT,
+    finished_at TIMESTAMP,
+    PRIMARY KEY (rebuild_id, chunk_no)
+);
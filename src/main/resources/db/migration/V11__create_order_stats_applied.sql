@@ -0,0 +1,33 @@
+-- =====================================================
+-- CQRS - READ SIDE: Contribuição de cada pedido ao rollup
+-- Guarda o dia, status e valores já somados na
+-- order_stats_daily para cada pedido. Cada alteração
+-- aplica só a diferença (sai o valor antigo, entra o
+-- novo), sem reler os demais pedidos do dia.
+-- =====================================================
+
+CREATE TABLE order_stats_applied
+(
+    order_id     UUID PRIMARY KEY,
+    day          DATE           NOT NULL,
+    status       VARCHAR(30)    NOT NULL,
+    subtotal     NUMERIC(15, 2) NOT NULL,
+    total_amount NUMERIC(15, 2) NOT NULL
+);
+
+-- Rollup e contribuições partem do mesmo estado das tabelas de escrita
+INSERT INTO order_stats_applied (order_id, day, status, subtotal, total_amount)
+SELECT id, CAST(created_at AS DATE), status, subtotal, total_amount
+FROM orders;
+
+TRUNCATE order_stats_daily;
+
+INSERT INTO order_stats_daily (day, status, order_count, gross, net, discount_total)
+SELECT day,
+       status,
+       COUNT(*),
+       SUM(subtotal),
+       SUM(total_amount),
+       SUM(subtotal - total_amount)
+FROM order_stats_applied
+GROUP BY day, status;
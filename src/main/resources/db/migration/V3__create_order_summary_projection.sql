@@ -0,0 +1,39 @@
+-- =====================================================
+-- CQRS - READ SIDE: Projeção incremental por pedido
+-- Mesmo formato da order_summary_mview, mas mantida
+-- linha a linha (upsert do order_id alterado) ao invés
+-- de ser reconstruída inteira a cada command.
+-- Usada quando cqrs.read-model.mode = incremental.
+-- =====================================================
+
+CREATE TABLE order_summary
+(
+    order_id            UUID PRIMARY KEY,
+    customer_name       VARCHAR(255)   NOT NULL,
+    status              VARCHAR(30)    NOT NULL,
+    discount            NUMERIC(5, 2)  NOT NULL,
+    total_items         BIGINT         NOT NULL,
+    subtotal            NUMERIC        NOT NULL,
+    total_with_discount NUMERIC(15, 2) NOT NULL,
+    created_at          TIMESTAMP      NOT NULL,
+    updated_at          TIMESTAMP      NOT NULL
+);
+
+CREATE INDEX idx_order_summary_status ON order_summary (status);
+CREATE INDEX idx_order_summary_customer ON order_summary (customer_name);
+
+-- Carga inicial a partir das tabelas de escrita
+INSERT INTO order_summary (order_id, customer_name, status, discount, total_items,
+                           subtotal, total_with_discount, created_at, updated_at)
+SELECT o.id,
+       o.customer_name,
+       o.status,
+       o.discount,
+       COUNT(oi.id),
+       COALESCE(SUM(oi.quantity * oi.unit_price), 0),
+       o.total_amount,
+       o.created_at,
+       o.updated_at
+FROM orders o
+         LEFT JOIN order_items oi ON oi.order_id = o.id
+GROUP BY o.id;
@@ -0,0 +1,14 @@
+-- =====================================================
+-- CQRS - Outbox transacional
+-- Cada command grava aqui, na mesma transação da escrita,
+-- os pedidos alterados. Um projetor em background consome
+-- a tabela em lotes (FOR UPDATE SKIP LOCKED), então nenhuma
+-- alteração se perde se a JVM cair após o commit.
+-- =====================================================
+
+CREATE TABLE order_events
+(
+    id         BIGSERIAL PRIMARY KEY,
+    order_id   UUID      NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT NOW()
+);
@@ -0,0 +1,12 @@
+-- =====================================================
+-- Paginação por cursor (keyset) ordenada por
+-- (created_at, order_id) do mais novo para o mais antigo.
+-- Cada página busca direto no índice a partir do último
+-- registro visto, sem OFFSET e sem COUNT.
+-- =====================================================
+
+CREATE INDEX idx_order_summary_mview_created_id ON order_summary_mview (created_at DESC, order_id DESC);
+CREATE INDEX idx_order_summary_created_id ON order_summary (created_at DESC, order_id DESC);
+
+-- Lado JPQL: a ordenação é resolvida na tabela de escrita
+CREATE INDEX idx_orders_created_id ON orders (created_at DESC, id DESC);
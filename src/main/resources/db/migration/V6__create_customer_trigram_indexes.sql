@@ -0,0 +1,15 @@
+-- =====================================================
+-- Busca parcial por cliente com índice trigram (pg_trgm).
+-- LOWER(customer_name) LIKE '%termo%' não usa índice B-tree
+-- e força leitura sequencial; com GIN + gin_trgm_ops o
+-- filtro customer_name ILIKE '%termo%' passa a usar índice
+-- (termos a partir de 3 caracteres).
+-- =====================================================
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX idx_order_summary_mview_customer_trgm ON order_summary_mview USING gin (customer_name gin_trgm_ops);
+CREATE INDEX idx_order_summary_customer_trgm ON order_summary USING gin (customer_name gin_trgm_ops);
+
+-- Lado JPQL: o filtro é aplicado na tabela de escrita
+CREATE INDEX idx_orders_customer_trgm ON orders USING gin (customer_name gin_trgm_ops);
@@ -0,0 +1,9 @@
+-- =====================================================
+-- CQRS - Concorrência otimista no aggregate Order
+-- Cada UPDATE confere e incrementa a versão; dois commands
+-- concorrentes no mesmo pedido não se sobrescrevem mais,
+-- e nenhuma linha é travada na leitura.
+-- =====================================================
+
+ALTER TABLE orders
+    ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
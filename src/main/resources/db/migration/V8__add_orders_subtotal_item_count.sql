@@ -0,0 +1,20 @@
+-- =====================================================
+-- CQRS - Totais desnormalizados no aggregate Order
+-- Subtotal e quantidade de itens mantidos junto do pedido
+-- permitem remover um item aplicando só a diferença, sem
+-- carregar nem somar os demais itens.
+-- =====================================================
+
+ALTER TABLE orders
+    ADD COLUMN subtotal   NUMERIC(15, 2) NOT NULL DEFAULT 0,
+    ADD COLUMN item_count INT            NOT NULL DEFAULT 0;
+
+UPDATE orders o
+SET subtotal   = s.subtotal,
+    item_count = s.item_count
+FROM (SELECT order_id,
+             SUM(quantity * unit_price) AS subtotal,
+             COUNT(*)                   AS item_count
+      FROM order_items
+      GROUP BY order_id) s
+WHERE s.order_id = o.id;
@@ -0,0 +1,29 @@
+-- =====================================================
+-- CQRS - READ SIDE: Estatísticas diárias por status
+-- Rollup por dia de criação e status, recalculado apenas
+-- para os dias dos pedidos alterados. Consultas de painel
+-- custam O(dias x status), não O(pedidos).
+-- =====================================================
+
+CREATE TABLE order_stats_daily
+(
+    day            DATE           NOT NULL,
+    status         VARCHAR(30)    NOT NULL,
+    order_count    BIGINT         NOT NULL,
+    gross          NUMERIC(17, 2) NOT NULL,
+    net            NUMERIC(17, 2) NOT NULL,
+    discount_total NUMERIC(17, 2) NOT NULL,
+    updated_at     TIMESTAMP      NOT NULL DEFAULT NOW(),
+    PRIMARY KEY (day, status)
+);
+
+-- Carga inicial a partir das tabelas de escrita
+INSERT INTO order_stats_daily (day, status, order_count, gross, net, discount_total)
+SELECT CAST(created_at AS DATE),
+       status,
+       COUNT(*),
+       SUM(subtotal),
+       SUM(total_amount),
+       SUM(subtotal - total_amount)
+FROM orders
+GROUP BY CAST(created_at AS DATE), status;
@@ -0,0 +1,44 @@
+package com.poc.cqrs.command.dto;
+
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Itens nulos devem virar violação do próprio pedido, não um erro do lote inteiro.
+ */
+class CreateOrderCommandTest {
+
+    private static Validator validator;
+
+    @BeforeAll
+    static void setUp() {
+        validator = Validation.buildDefaultValidatorFactory().getValidator();
+    }
+
+    @Test
+    void nullItemIsReportedAsViolation() {
+        var cmd = new CreateOrderCommand("Cliente", Arrays.asList(
+                new CreateOrderCommand.OrderItemCommand("Produto", 1, BigDecimal.TEN), null));
+
+        var violations = validator.validate(cmd);
+
+        assertThat(violations).hasSize(1);
+        assertThat(violations.iterator().next().getPropertyPath().toString()).isEqualTo("items[1].<list element>");
+    }
+
+    @Test
+    void validCommandHasNoViolations() {
+        var cmd = new CreateOrderCommand("Cliente", List.of(
+                new CreateOrderCommand.OrderItemCommand("Produto", 1, BigDecimal.TEN)));
+
+        assertThat(validator.validate(cmd)).isEmpty();
+    }
+}
@@ -0,0 +1,121 @@
+package com.poc.cqrs.command.entity;
+
+import net.jqwik.api.Arbitraries;
+import net.jqwik.api.Arbitrary;
+import net.jqwik.api.Combinators;
+import net.jqwik.api.Example;
+import net.jqwik.api.ForAll;
+import net.jqwik.api.Property;
+import net.jqwik.api.Provide;
+import net.jqwik.api.constraints.IntRange;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * {@link Order#recalculate()} deve produzir exatamente os mesmos valores
+ * (inclusive a escala) do cálculo anterior com stream e BigDecimal.
+ */
+class OrderRecalculateParityTest {
+
+    @Property
+    void createMatchesBigDecimalPath(@ForAll("items") List<OrderItem> items) {
+        Order order = Order.create(UUID.randomUUID(), "Cliente", items);
+
+        assertMatchesLegacy(order, items);
+    }
+
+    @Property
+    void removeItemMatchesBigDecimalPath(@ForAll("items") List<OrderItem> items,
+                                         @ForAll @IntRange(max = 299) int removedIndex) {
+        Order order = Order.create(UUID.randomUUID(), "Cliente", items);
+        OrderItem removed = items.get(removedIndex % items.size());
+
+        order.removeItem(removed.getId());
+
+        assertMatchesLegacy(order, items.stream().filter(item -> item != removed).toList());
+    }
+
+    @Property
+    void repeatedRecalculateIsStable(@ForAll("items") List<OrderItem> items) {
+        Order order = Order.create(UUID.randomUUID(), "Cliente", items);
+
+        order.recalculate();
+        order.recalculate();
+
+        assertMatchesLegacy(order, items);
+    }
+
+    @Example
+    void discountStartsAboveThreshold() {
+        var atThreshold = List.of(item(1, "500.00"));
+        var aboveThreshold = List.of(item(1, "500.01"));
+
+        assertThat(Order.create(UUID.randomUUID(), "Cliente", atThreshold).getDiscount())
+                .isEqualByComparingTo(BigDecimal.ZERO);
+        assertMatchesLegacy(Order.create(UUID.randomUUID(), "Cliente", aboveThreshold), aboveThreshold);
+    }
+
+    @Example
+    void halfUpRoundingOfDiscount() {
+        // 10% de 500.05 = 50.005 → 50.01
+        var items = List.of(item(1, "500.05"));
+
+        Order order = Order.create(UUID.randomUUID(), "Cliente", items);
+
+        assertThat(order.getTotalAmount()).isEqualTo(new BigDecimal("450.04"));
+        assertMatchesLegacy(order, items);
+    }
+
+    @Provide
+    Arbitrary<List<OrderItem>> items() {
+        // Preços com 0 a 4 casas decimais: a API não limita a escala
+        Arbitrary<BigDecimal> unitPrice = Combinators.combine(
+                Arbitraries.longs().between(0, 10_000_000),
+                Arbitraries.integers().between(0, 4)
+        ).as(BigDecimal::valueOf);
+        Arbitrary<Integer> quantity = Arbitraries.integers().between(1, 1_000);
+
+        return Combinators.combine(quantity, unitPrice)
+                .as((q, price) -> OrderItem.create(UUID.randomUUID(), "Produto", q, price))
+                .list().ofMinSize(1).ofMaxSize(300);
+    }
+
+    private static OrderItem item(int quantity, String unitPrice) {
+        return OrderItem.create(UUID.randomUUID(), "Produto", quantity, new BigDecimal(unitPrice));
+    }
+
+    private static void assertMatchesLegacy(Order order, List<OrderItem> items) {
+        Legacy expected = legacyRecalculate(items);
+
+        // equals do BigDecimal compara também a escala
+        assertThat(order.getSubtotal()).isEqualTo(expected.subtotal());
+        assertThat(order.getDiscount()).isEqualTo(expected.discount());
+        assertThat(order.getTotalAmount()).isEqualTo(expected.total());
+        assertThat(order.getItemCount()).isEqualTo(items.size());
+    }
+
+    /**
+     * Cálculo anterior ao subtotal em cache, mantido como referência.
+     */
+    private static Legacy legacyRecalculate(List<OrderItem> items) {
+        BigDecimal subtotal = items.stream()
+                .map(item -> item.getUnitPrice().multiply(BigDecimal.valueOf(item.getQuantity())))
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+
+        if (subtotal.compareTo(new BigDecimal("500.00")) > 0) {
+            BigDecimal discountValue = subtotal
+                    .multiply(new BigDecimal("10.00"))
+                    .divide(new BigDecimal("100"), 2, RoundingMode.HALF_UP);
+            return new Legacy(subtotal, new BigDecimal("10.00"), subtotal.subtract(discountValue));
+        }
+        return new Legacy(subtotal, BigDecimal.ZERO, subtotal);
+    }
+
+    private record Legacy(BigDecimal subtotal, BigDecimal discount, BigDecimal total) {
+    }
+}
@@ -0,0 +1,84 @@
+package com.poc.cqrs.command.id;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UuidV7GeneratorTest {
+
+    private final UuidV7Generator generator = new UuidV7Generator();
+
+    @Test
+    void setsVersionAndVariant() {
+        UUID id = generator.next();
+
+        assertThat(id.version()).isEqualTo(7);
+        assertThat(id.variant()).isEqualTo(2);
+    }
+
+    @Test
+    void embedsCurrentTimestamp() {
+        long before = System.currentTimeMillis();
+        UUID id = generator.next();
+        long after = System.currentTimeMillis();
+
+        assertThat(id.getMostSignificantBits() >>> 16).isBetween(before, after);
+    }
+
+    @Test
+    void idsAreStrictlyIncreasingInDatabaseOrder() {
+        // Muitos ids caem no mesmo milissegundo: a ordem vem do contador
+        UUID previous = generator.next();
+        for (int i = 0; i < 100_000; i++) {
+            UUID current = generator.next();
+            assertThat(compareUnsigned(current, previous)).isPositive();
+            previous = current;
+        }
+    }
+
+    @Test
+    void concurrentCallersNeverShareTimestampAndCounter() throws Exception {
+        int threads = 8;
+        int perThread = 20_000;
+        Callable<List<UUID>> task = () -> {
+            var ids = new ArrayList<UUID>(perThread);
+            for (int i = 0; i < perThread; i++) {
+                ids.add(generator.next());
+            }
+            return ids;
+        };
+
+        var prefixes = new HashSet<Long>();
+        try (var executor = Executors.newFixedThreadPool(threads)) {
+            var futures = new ArrayList<Future<List<UUID>>>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(executor.submit(task));
+            }
+            for (var future : futures) {
+                List<UUID> ids = future.get();
+                for (int i = 1; i < ids.size(); i++) {
+                    assertThat(compareUnsigned(ids.get(i), ids.get(i - 1))).isPositive();
+                }
+                ids.forEach(id -> prefixes.add(id.getMostSignificantBits()));
+            }
+        }
+
+        assertThat(prefixes).hasSize(threads * perThread);
+    }
+
+    /**
+     * Ordem do PostgreSQL (e dos índices): bytes sem sinal, da esquerda para a direita.
+     */
+    private static int compareUnsigned(UUID a, UUID b) {
+        int msb = Long.compareUnsigned(a.getMostSignificantBits(), b.getMostSignificantBits());
+        return msb != 0 ? msb : Long.compareUnsigned(a.getLeastSignificantBits(), b.getLeastSignificantBits());
+    }
+}
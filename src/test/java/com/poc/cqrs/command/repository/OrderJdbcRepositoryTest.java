@@ -0,0 +1,146 @@
+package com.poc.cqrs.command.repository;
+
+import com.poc.cqrs.command.entity.Order;
+import com.poc.cqrs.command.entity.OrderItem;
+import com.poc.cqrs.support.RequiresDatabase;
+import com.poc.cqrs.support.TestDatabase;
+import net.jqwik.api.Arbitraries;
+import net.jqwik.api.Arbitrary;
+import net.jqwik.api.Combinators;
+import net.jqwik.api.Example;
+import net.jqwik.api.ForAll;
+import net.jqwik.api.Property;
+import net.jqwik.api.Provide;
+import net.jqwik.api.constraints.IntRange;
+import net.jqwik.api.lifecycle.AddLifecycleHook;
+import net.jqwik.api.lifecycle.BeforeContainer;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * A remoção por delta em SQL deve deixar o pedido com os mesmos totais que
+ * {@link Order#removeItem} calcula no aggregate.
+ */
+@AddLifecycleHook(RequiresDatabase.class)
+class OrderJdbcRepositoryTest {
+
+    private static JdbcTemplate jdbcTemplate;
+    private static TransactionTemplate transactionTemplate;
+    private static OrderJdbcRepository repository;
+
+    @BeforeContainer
+    static void connect() {
+        var dataSource = TestDatabase.dataSource();
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        repository = new OrderJdbcRepository(jdbcTemplate);
+    }
+
+    @Property(tries = 200)
+    void removeItemMatchesAggregate(@ForAll("items") List<OrderItem> items,
+                                    @ForAll @IntRange(max = 29) int removedIndex) {
+        Order order = insert(items);
+        OrderItem removed = items.get(removedIndex % items.size());
+
+        boolean result = inTransaction(() -> repository.removeItem(order.getId(), removed.getId()));
+        order.removeItem(removed.getId());
+
+        assertThat(result).isTrue();
+        assertStoredTotals(order);
+    }
+
+    @Example
+    void discountIsDroppedWhenSubtotalFallsToThreshold() {
+        var kept = item(1, "500.00");
+        var removed = item(1, "0.01");
+        Order order = insert(List.of(kept, removed));
+        assertThat(order.getDiscount()).isEqualByComparingTo("10.00");
+
+        inTransaction(() -> repository.removeItem(order.getId(), removed.getId()));
+        order.removeItem(removed.getId());
+
+        assertThat(order.getDiscount()).isEqualByComparingTo(BigDecimal.ZERO);
+        assertStoredTotals(order);
+    }
+
+    @Example
+    void lastItemIsRejectedAndDeleteRolledBack() {
+        var only = item(2, "10.00");
+        Order order = insert(List.of(only));
+
+        assertThatThrownBy(() -> inTransaction(() -> repository.removeItem(order.getId(), only.getId())))
+                .isInstanceOf(IllegalStateException.class);
+
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM order_items WHERE order_id = ?", Integer.class, order.getId())).isEqualTo(1);
+        assertStoredTotals(order);
+    }
+
+    @Example
+    void itemOfAnotherOrderIsIgnored() {
+        Order order = insert(List.of(item(1, "10.00"), item(1, "20.00")));
+        Order other = insert(List.of(item(1, "30.00"), item(1, "40.00")));
+
+        boolean result = inTransaction(() ->
+                repository.removeItem(order.getId(), other.getItems().get(0).getId()));
+
+        assertThat(result).isFalse();
+        assertStoredTotals(order);
+        assertStoredTotals(other);
+    }
+
+    @Provide
+    Arbitrary<List<OrderItem>> items() {
+        // unit_price é NUMERIC(15, 2); faixa escolhida para cruzar o limite do desconto com frequência
+        Arbitrary<BigDecimal> unitPrice = Arbitraries.longs().between(0, 40_000).map(cents -> BigDecimal.valueOf(cents, 2));
+        Arbitrary<Integer> quantity = Arbitraries.integers().between(1, 5);
+        return Combinators.combine(quantity, unitPrice)
+                .as((q, price) -> OrderItem.create(UUID.randomUUID(), "Produto", q, price))
+                .list().ofMinSize(2).ofMaxSize(30);
+    }
+
+    private static OrderItem item(int quantity, String unitPrice) {
+        return OrderItem.create(UUID.randomUUID(), "Produto", quantity, new BigDecimal(unitPrice));
+    }
+
+    private static Order insert(List<OrderItem> items) {
+        Order order = Order.create(UUID.randomUUID(), "Cliente", items);
+        jdbcTemplate.update("""
+                        INSERT INTO orders (id, customer_name, status, discount, total_amount, subtotal, item_count,
+                                            created_at, updated_at)
+                        VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)
+                        """,
+                order.getId(), order.getCustomerName(), order.getStatus().name(), order.getDiscount(),
+                order.getTotalAmount(), order.getSubtotal(), order.getItemCount(),
+                order.getCreatedAt(), order.getUpdatedAt());
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO order_items (id, order_id, product, quantity, unit_price) VALUES (?, ?, ?, ?, ?)",
+                items.stream()
+                        .map(item -> new Object[]{item.getId(), order.getId(), item.getProduct(),
+                                item.getQuantity(), item.getUnitPrice()})
+                        .toList());
+        return order;
+    }
+
+    private static <T> T inTransaction(Supplier<T> action) {
+        return transactionTemplate.execute(status -> action.get());
+    }
+
+    private static void assertStoredTotals(Order expected) {
+        jdbcTemplate.query("SELECT subtotal, item_count, discount, total_amount FROM orders WHERE id = ?", rs -> {
+            assertThat(rs.getBigDecimal("subtotal")).isEqualByComparingTo(expected.getSubtotal());
+            assertThat(rs.getInt("item_count")).isEqualTo(expected.getItemCount());
+            assertThat(rs.getBigDecimal("discount")).isEqualByComparingTo(expected.getDiscount());
+            assertThat(rs.getBigDecimal("total_amount")).isEqualByComparingTo(expected.getTotalAmount());
+        }, expected.getId());
+    }
+}
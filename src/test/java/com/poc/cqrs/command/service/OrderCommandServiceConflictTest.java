@@ -0,0 +1,136 @@
+package com.poc.cqrs.command.service;
+
+import com.poc.cqrs.command.dto.CreateOrderCommand;
+import com.poc.cqrs.command.dto.UpdateOrderStatusCommand;
+import com.poc.cqrs.command.enums.OrderStatus;
+import com.poc.cqrs.command.service.MaterializedViewRefresher.OrderDataChangedEvent;
+import com.poc.cqrs.support.TestDatabase;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIf;
+import org.postgresql.ds.PGSimpleDataSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Dois commands concorrentes no mesmo pedido, no modo incremental: o que perde
+ * a corrida de versão deve ser reexecutado, não falhar com a exceção do JPA.
+ */
+@EnabledIf("com.poc.cqrs.support.TestDatabase#available")
+@SpringBootTest(properties = {
+        "cqrs.read-model.mode=incremental",
+        "cqrs.datasource.routing.enabled=false",
+        "cqrs.query.stream.enabled=false"
+})
+class OrderCommandServiceConflictTest {
+
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) {
+        var dataSource = (PGSimpleDataSource) TestDatabase.dataSource();
+        registry.add("spring.datasource.url", dataSource::getUrl);
+        registry.add("spring.datasource.username", dataSource::getUser);
+        registry.add("spring.datasource.password", dataSource::getPassword);
+    }
+
+    @Autowired
+    private OrderCommandService commandService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private HoldFirstCommit holdFirstCommit;
+
+    @Test
+    void concurrentStatusUpdateIsRetried() throws Exception {
+        UUID orderId = commandService.createOrder(new CreateOrderCommand("Cliente Concorrente",
+                List.of(new CreateOrderCommand.OrderItemCommand("Produto", 1, BigDecimal.TEN))));
+        double retriesBefore = meterRegistry.counter("cqrs.command.retries", "command", "updateOrderStatus").count();
+        holdFirstCommit.arm();
+
+        // O primeiro command para antes do commit, com a versão nova ainda não confirmada
+        var confirm = CompletableFuture.runAsync(() ->
+                commandService.updateOrderStatus(new UpdateOrderStatusCommand(orderId, OrderStatus.CONFIRMED)));
+        assertThat(holdFirstCommit.holding.await(10, TimeUnit.SECONDS)).isTrue();
+        // O segundo lê a versão anterior e espera pelo lock da linha até o primeiro confirmar
+        var cancel = CompletableFuture.runAsync(() ->
+                commandService.updateOrderStatus(new UpdateOrderStatusCommand(orderId, OrderStatus.CANCELLED)));
+
+        confirm.get(10, TimeUnit.SECONDS);
+        cancel.get(10, TimeUnit.SECONDS);
+
+        assertThat(jdbcTemplate.queryForObject("SELECT status FROM orders WHERE id = ?", String.class, orderId))
+                .isEqualTo("CANCELLED");
+        assertThat(jdbcTemplate.queryForObject("SELECT status FROM order_summary WHERE order_id = ?",
+                String.class, orderId)).isEqualTo("CANCELLED");
+        assertThat(meterRegistry.counter("cqrs.command.retries", "command", "updateOrderStatus").count())
+                .isGreaterThan(retriesBefore);
+    }
+
+    @TestConfiguration
+    static class Config {
+
+        @Bean
+        HoldFirstCommit holdFirstCommit(JdbcTemplate jdbcTemplate) {
+            return new HoldFirstCommit(jdbcTemplate);
+        }
+    }
+
+    /**
+     * Segura o primeiro commit armado até outra transação estar bloqueada no
+     * UPDATE de orders, o que garante que as duas leram a mesma versão.
+     */
+    static class HoldFirstCommit {
+
+        private final JdbcTemplate jdbcTemplate;
+        private final AtomicBoolean armed = new AtomicBoolean();
+        private final CountDownLatch holding = new CountDownLatch(1);
+
+        HoldFirstCommit(JdbcTemplate jdbcTemplate) {
+            this.jdbcTemplate = jdbcTemplate;
+        }
+
+        void arm() {
+            armed.set(true);
+        }
+
+        @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+        public void beforeCommit(OrderDataChangedEvent event) throws InterruptedException {
+            if (!armed.compareAndSet(true, false)) {
+                return;
+            }
+            holding.countDown();
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (System.nanoTime() < deadline && waitingOnOrders() == 0) {
+                Thread.sleep(20);
+            }
+        }
+
+        private int waitingOnOrders() {
+            return jdbcTemplate.queryForObject("""
+                    SELECT COUNT(*) FROM pg_stat_activity
+                    WHERE wait_event_type = 'Lock' AND query ILIKE 'update orders%'
+                    """, Integer.class);
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package com.poc.cqrs.command.service;
+
+import com.poc.cqrs.command.enums.OrderStatus;
+import com.poc.cqrs.support.RequiresDatabase;
+import com.poc.cqrs.support.TestDatabase;
+import net.jqwik.api.Arbitraries;
+import net.jqwik.api.Arbitrary;
+import net.jqwik.api.Combinators;
+import net.jqwik.api.Example;
+import net.jqwik.api.ForAll;
+import net.jqwik.api.From;
+import net.jqwik.api.Property;
+import net.jqwik.api.Provide;
+import net.jqwik.api.constraints.IntRange;
+import net.jqwik.api.constraints.Size;
+import net.jqwik.api.lifecycle.AddLifecycleHook;
+import net.jqwik.api.lifecycle.BeforeContainer;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Depois de qualquer sequência de alterações aplicadas por delta, o rollup
+ * do dia deve ser igual à agregação completa dos pedidos desse dia.
+ */
+@AddLifecycleHook(RequiresDatabase.class)
+class OrderStatsProjectorTest {
+
+    private static JdbcTemplate jdbcTemplate;
+    private static TransactionTemplate transactionTemplate;
+    private static OrderStatsProjector projector;
+
+    @BeforeContainer
+    static void connect() {
+        var dataSource = TestDatabase.dataSource();
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        projector = new OrderStatsProjector(jdbcTemplate, transactionTemplate,
+                new StaticListableBeanFactory().getBeanProvider(OrderEventOutbox.class));
+    }
+
+    @Property(tries = 50)
+    void rollupMatchesFullAggregationAfterDeltas(@ForAll @IntRange(max = 40_000) int dayOffset,
+                                                 @ForAll @IntRange(min = 1, max = 20) int orderCount,
+                                                 @ForAll @Size(max = 40) List<@From("changes") Change> changes) {
+        // Dias antigos, fora do alcance dos pedidos criados pelos outros testes
+        LocalDate day = LocalDate.of(1900, 1, 1).plusDays(dayOffset);
+        clear(day);
+        List<UUID> ids = new ArrayList<>();
+        for (int i = 0; i < orderCount; i++) {
+            ids.add(insertOrder(day));
+        }
+        apply(ids);
+
+        for (Change change : changes) {
+            UUID id = ids.get(change.orderIndex() % ids.size());
+            jdbcTemplate.update("UPDATE orders SET status = ?, subtotal = ?, total_amount = ? WHERE id = ?",
+                    change.status().name(), change.subtotal(), change.total(), id);
+            // Às vezes o mesmo pedido é reaplicado sem alteração, ou junto com outros
+            apply(change.withOthers() ? ids : List.of(id));
+        }
+
+        assertThat(rollup(day)).isEqualTo(fullAggregation(day));
+    }
+
+    @Example
+    void reconcileAppliesChangesLostBeforeFlush() {
+        LocalDate day = LocalDate.of(1899, 12, 31);
+        clear(day);
+        UUID applied = insertOrder(day);
+        apply(List.of(applied));
+
+        // Alterações confirmadas cujo flush nunca aconteceu (queda do processo)
+        UUID neverApplied = insertOrder(day);
+        jdbcTemplate.update("UPDATE orders SET status = 'SHIPPED', subtotal = 600.00, total_amount = 540.00 WHERE id = ?",
+                applied);
+
+        projector.reconcile();
+
+        assertThat(rollup(day)).isEqualTo(fullAggregation(day));
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM order_stats_applied WHERE order_id = ?", Long.class, neverApplied))
+                .isEqualTo(1L);
+    }
+
+    @Provide
+    Arbitrary<Change> changes() {
+        Arbitrary<BigDecimal> cents = Arbitraries.longs().between(0, 200_000).map(v -> BigDecimal.valueOf(v, 2));
+        return Combinators.combine(
+                Arbitraries.integers().between(0, 19),
+                Arbitraries.of(OrderStatus.class),
+                cents,
+                cents,
+                Arbitraries.of(true, false)
+        ).as(Change::new);
+    }
+
+    private static void clear(LocalDate day) {
+        jdbcTemplate.update("DELETE FROM orders WHERE CAST(created_at AS DATE) = ?", day);
+        jdbcTemplate.update("DELETE FROM order_stats_applied WHERE day = ?", day);
+        jdbcTemplate.update("DELETE FROM order_stats_daily WHERE day = ?", day);
+    }
+
+    private static UUID insertOrder(LocalDate day) {
+        UUID id = UUID.randomUUID();
+        jdbcTemplate.update("""
+                        INSERT INTO orders (id, customer_name, status, discount, total_amount, subtotal, item_count,
+                                            created_at, updated_at)
+                        VALUES (?, 'Cliente', 'PENDING', 0, 100.00, 100.00, 1, ?, ?)
+                        """,
+                id, day.atTime(12, 0), day.atTime(12, 0));
+        return id;
+    }
+
+    private static void apply(List<UUID> ids) {
+        transactionTemplate.executeWithoutResult(status -> projector.recompute(ids));
+    }
+
+    private static List<Map<String, Object>> rollup(LocalDate day) {
+        return jdbcTemplate.queryForList("""
+                SELECT status, order_count, gross, net, discount_total
+                FROM order_stats_daily
+                WHERE day = ? AND order_count > 0
+                ORDER BY status
+                """, day);
+    }
+
+    private static List<Map<String, Object>> fullAggregation(LocalDate day) {
+        return jdbcTemplate.queryForList("""
+                SELECT status,
+                       COUNT(*)                                   AS order_count,
+                       CAST(SUM(subtotal) AS NUMERIC(17, 2))      AS gross,
+                       CAST(SUM(total_amount) AS NUMERIC(17, 2))  AS net,
+                       CAST(SUM(subtotal - total_amount) AS NUMERIC(17, 2)) AS discount_total
+                FROM orders
+                WHERE CAST(created_at AS DATE) = ?
+                GROUP BY status
+                ORDER BY status
+                """, day);
+    }
+
+    record Change(int orderIndex, OrderStatus status, BigDecimal subtotal, BigDecimal total, boolean withOthers) {
+    }
+}
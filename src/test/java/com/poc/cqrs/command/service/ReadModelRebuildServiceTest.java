@@ -0,0 +1,69 @@
+package com.poc.cqrs.command.service;
+
+import com.poc.cqrs.config.ReadModelMode;
+import com.poc.cqrs.support.RequiresDatabase;
+import com.poc.cqrs.support.TestDatabase;
+import net.jqwik.api.Example;
+import net.jqwik.api.lifecycle.AddLifecycleHook;
+import net.jqwik.api.lifecycle.BeforeContainer;
+import org.postgresql.ds.PGSimpleDataSource;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Connection;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Um rebuild em execução em outro nó não pode ser iniciado nem adotado.
+ */
+@AddLifecycleHook(RequiresDatabase.class)
+class ReadModelRebuildServiceTest {
+
+    private static PGSimpleDataSource dataSource;
+    private static JdbcTemplate jdbcTemplate;
+
+    @BeforeContainer
+    static void connect() {
+        dataSource = (PGSimpleDataSource) TestDatabase.dataSource();
+        jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    @Example
+    void rejectsStartAndResumeWhileAnotherNodeHoldsTheLock() throws Exception {
+        var service = service();
+        Long lastRebuild = jdbcTemplate.queryForObject("SELECT MAX(id) FROM read_model_rebuilds", Long.class);
+
+        // Outro nó executando: a sessão dele segura o lock do rebuild
+        try (Connection otherNode = dataSource.getConnection();
+             var statement = otherNode.createStatement()) {
+            statement.execute("SELECT pg_advisory_lock(4178)");
+
+            assertThatThrownBy(() -> service.start(1, false))
+                    .isInstanceOf(IllegalStateException.class)
+                    .hasMessageContaining("outro nó");
+            assertThatThrownBy(() -> service.start(1, true))
+                    .isInstanceOf(IllegalStateException.class)
+                    .hasMessageContaining("outro nó");
+        } finally {
+            service.shutdown();
+        }
+
+        assertThat(jdbcTemplate.queryForObject("SELECT MAX(id) FROM read_model_rebuilds", Long.class))
+                .isEqualTo(lastRebuild);
+    }
+
+    private static ReadModelRebuildService service() {
+        var properties = new DataSourceProperties();
+        properties.setUrl(dataSource.getUrl());
+        properties.setUsername(dataSource.getUser());
+        properties.setPassword(dataSource.getPassword());
+        return new ReadModelRebuildService(jdbcTemplate,
+                new TransactionTemplate(new DataSourceTransactionManager(dataSource)), properties,
+                ReadModelMode.INCREMENTAL, 4, 16, 50_000, Duration.ofMinutes(5), Duration.ofSeconds(10));
+    }
+}
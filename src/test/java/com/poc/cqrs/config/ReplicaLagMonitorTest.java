@@ -0,0 +1,41 @@
+package com.poc.cqrs.config;
+
+import com.poc.cqrs.support.RequiresDatabase;
+import com.poc.cqrs.support.TestDatabase;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import net.jqwik.api.Example;
+import net.jqwik.api.lifecycle.AddLifecycleHook;
+import org.postgresql.ds.PGSimpleDataSource;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@AddLifecycleHook(RequiresDatabase.class)
+class ReplicaLagMonitorTest {
+
+    @Example
+    void primaryIsAlwaysUsableWithZeroLag() {
+        var meterRegistry = new SimpleMeterRegistry();
+        var monitor = new ReplicaLagMonitor(TestDatabase.dataSource(), Duration.ofSeconds(5), meterRegistry);
+
+        monitor.check();
+
+        assertThat(monitor.isReplicaUsable()).isTrue();
+        assertThat(meterRegistry.get("cqrs.datasource.replica.lag").gauge().value()).isZero();
+        assertThat(monitor.readLag()).isZero();
+    }
+
+    @Example
+    void unreachableDatabaseIsNotUsable() {
+        var unreachable = new PGSimpleDataSource();
+        unreachable.setUrl("jdbc:postgresql://127.0.0.1:1/none?connectTimeout=1");
+        var monitor = new ReplicaLagMonitor(unreachable, Duration.ofSeconds(5), new SimpleMeterRegistry());
+
+        monitor.check();
+
+        assertThat(monitor.isReplicaUsable()).isFalse();
+        // As leituras voltam ao primário, que não tem atraso
+        assertThat(monitor.readLag()).isZero();
+    }
+}
@@ -0,0 +1,96 @@
+package com.poc.cqrs.query.controller;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OrderETagsTest {
+
+    private static final LocalDateTime UPDATED_AT = LocalDateTime.of(2024, 5, 10, 14, 30, 15, 123_456_000);
+
+    private record Row(UUID id, LocalDateTime updatedAt) {
+    }
+
+    @AfterEach
+    void clearRequest() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void sameVersionGivesSameTag() {
+        assertThat(OrderETags.of(UPDATED_AT)).isEqualTo(OrderETags.of(UPDATED_AT));
+        assertThat(OrderETags.of(UPDATED_AT)).isNotEqualTo(OrderETags.of(UPDATED_AT.plusNanos(1_000)));
+    }
+
+    @Test
+    void eachNegotiatedFormatHasItsOwnTag() {
+        String json = withAccept("application/json", () -> OrderETags.of(UPDATED_AT));
+        String any = withAccept("*/*", () -> OrderETags.of(UPDATED_AT));
+        String cbor = withAccept("application/cbor", () -> OrderETags.of(UPDATED_AT));
+        String smile = withAccept("application/x-jackson-smile", () -> OrderETags.of(UPDATED_AT));
+
+        assertThat(any).isEqualTo(json).isEqualTo(OrderETags.of(UPDATED_AT));
+        assertThat(List.of(json, cbor, smile)).doesNotHaveDuplicates();
+        assertThat(cbor).startsWith("\"").endsWith("-cbor\"");
+    }
+
+    @Test
+    void followsAcceptQualityAndSpecificity() {
+        String cbor = withAccept("application/cbor", () -> OrderETags.of(UPDATED_AT));
+
+        assertThat(withAccept("application/json;q=0.5, application/cbor", () -> OrderETags.of(UPDATED_AT)))
+                .isEqualTo(cbor);
+        assertThat(withAccept("*/*, application/cbor", () -> OrderETags.of(UPDATED_AT)))
+                .isEqualTo(cbor);
+        assertThat(withAccept("application/cbor;q=0, */*", () -> OrderETags.of(UPDATED_AT)))
+                .isEqualTo(OrderETags.of(UPDATED_AT));
+    }
+
+    @Test
+    void listTagDependsOnRowsOrderAndMetadata() {
+        var a = new Row(UUID.randomUUID(), UPDATED_AT);
+        var b = new Row(UUID.randomUUID(), UPDATED_AT.plusSeconds(1));
+
+        String tag = OrderETags.of(List.of(a, b), Row::id, Row::updatedAt);
+
+        assertThat(OrderETags.of(List.of(a, b), Row::id, Row::updatedAt)).isEqualTo(tag);
+        assertThat(OrderETags.of(List.of(b, a), Row::id, Row::updatedAt)).isNotEqualTo(tag);
+        assertThat(OrderETags.of(List.of(a, new Row(b.id(), b.updatedAt().plusNanos(1_000))), Row::id, Row::updatedAt))
+                .isNotEqualTo(tag);
+        assertThat(OrderETags.of(List.of(a, b), Row::id, Row::updatedAt, 2)).isNotEqualTo(tag);
+    }
+
+    @Test
+    void pageTagChangesWithTotalAndSliceTagWithNextPage() {
+        var rows = List.of(new Row(UUID.randomUUID(), UPDATED_AT));
+        var pageable = PageRequest.of(0, 1);
+
+        assertThat(OrderETags.of(new PageImpl<>(rows, pageable, 5), Row::id, Row::updatedAt))
+                .isNotEqualTo(OrderETags.of(new PageImpl<>(rows, pageable, 6), Row::id, Row::updatedAt));
+        assertThat(OrderETags.of(new SliceImpl<>(rows, pageable, true), Row::id, Row::updatedAt))
+                .isNotEqualTo(OrderETags.of(new SliceImpl<>(rows, pageable, false), Row::id, Row::updatedAt));
+    }
+
+    private static String withAccept(String accept, Supplier<String> tag) {
+        var request = new MockHttpServletRequest();
+        request.addHeader("Accept", accept);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+        try {
+            return tag.get();
+        } finally {
+            RequestContextHolder.resetRequestAttributes();
+        }
+    }
+}
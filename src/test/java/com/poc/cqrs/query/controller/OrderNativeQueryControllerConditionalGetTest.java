@@ -0,0 +1,107 @@
+package com.poc.cqrs.query.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.poc.cqrs.command.enums.OrderStatus;
+import com.poc.cqrs.config.BinaryFormatConfig;
+import com.poc.cqrs.query.dto.OrderSummaryJpqlView;
+import com.poc.cqrs.query.repository.OrderReadRepository;
+import com.poc.cqrs.query.service.OrderCountService;
+import com.poc.cqrs.query.service.OrderReadRouter;
+import com.poc.cqrs.query.service.OrderSummaryBatchService;
+import com.poc.cqrs.query.service.OrderSummaryCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.hasItem;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * GET condicional com negociação de conteúdo: cada formato tem seu ETag e a
+ * resposta declara {@code Vary: Accept}.
+ */
+class OrderNativeQueryControllerConditionalGetTest {
+
+    private static final UUID ORDER_ID = UUID.randomUUID();
+    private static final LocalDateTime UPDATED_AT = LocalDateTime.of(2024, 5, 10, 14, 30, 15);
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        var readRepository = mock(OrderReadRepository.class);
+        when(readRepository.findUpdatedAtById(ORDER_ID)).thenReturn(Optional.of(UPDATED_AT));
+        when(readRepository.findSummaryById(ORDER_ID)).thenReturn(Optional.of(new OrderSummaryJpqlView(
+                ORDER_ID, "Cliente", OrderStatus.PENDING, BigDecimal.ZERO, 1L,
+                new BigDecimal("10.00"), new BigDecimal("10.00"), UPDATED_AT, UPDATED_AT)));
+        var router = mock(OrderReadRouter.class);
+        when(router.replicaLag()).thenReturn(Duration.ZERO);
+        var cache = new OrderSummaryCache(new SimpleMeterRegistry(), router, false, 10, Duration.ofSeconds(5));
+        var controller = new OrderNativeQueryController(readRepository, cache,
+                mock(OrderCountService.class), mock(OrderSummaryBatchService.class));
+
+        ObjectMapper json = new ObjectMapper().registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        ObjectMapper cbor = CBORMapper.builder().addModule(new JavaTimeModule()).build();
+        mockMvc = MockMvcBuilders.standaloneSetup(controller)
+                .setMessageConverters(new MappingJackson2HttpMessageConverter(json),
+                        new MappingJackson2CborHttpMessageConverter(cbor))
+                .addInterceptors(new BinaryFormatConfig.VaryByAcceptInterceptor())
+                .build();
+    }
+
+    @Test
+    void jsonAndCborResponsesHaveDistinctTagsAndVaryByAccept() throws Exception {
+        String jsonTag = etag(MediaType.APPLICATION_JSON);
+        String cborTag = etag(MediaType.APPLICATION_CBOR);
+
+        assertThat(cborTag).isNotEqualTo(jsonTag);
+        mockMvc.perform(get("/api/orders/jpql/{id}", ORDER_ID).accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_CBOR))
+                .andExpect(header().stringValues(HttpHeaders.VARY, hasItem(HttpHeaders.ACCEPT)));
+    }
+
+    @Test
+    void revalidatesOnlyTheFormatTheTagWasIssuedFor() throws Exception {
+        String jsonTag = etag(MediaType.APPLICATION_JSON);
+        String cborTag = etag(MediaType.APPLICATION_CBOR);
+
+        mockMvc.perform(get("/api/orders/jpql/{id}", ORDER_ID)
+                        .accept(MediaType.APPLICATION_CBOR).header(HttpHeaders.IF_NONE_MATCH, cborTag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().stringValues(HttpHeaders.VARY, hasItem(HttpHeaders.ACCEPT)));
+        // Tag do JSON com Accept CBOR: o corpo guardado é de outro formato, então não há 304
+        mockMvc.perform(get("/api/orders/jpql/{id}", ORDER_ID)
+                        .accept(MediaType.APPLICATION_CBOR).header(HttpHeaders.IF_NONE_MATCH, jsonTag))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_CBOR));
+    }
+
+    private String etag(MediaType accept) throws Exception {
+        return mockMvc.perform(get("/api/orders/jpql/{id}", ORDER_ID).accept(accept))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+    }
+}
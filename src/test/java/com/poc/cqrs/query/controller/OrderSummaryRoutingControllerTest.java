@@ -0,0 +1,180 @@
+package com.poc.cqrs.query.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.poc.cqrs.command.enums.OrderStatus;
+import com.poc.cqrs.config.GlobalExceptionHandler;
+import com.poc.cqrs.query.dto.OrderSummaryJpqlView;
+import com.poc.cqrs.query.entity.OrderSummaryView;
+import com.poc.cqrs.query.repository.OrderReadRepository;
+import com.poc.cqrs.query.service.EntityReadService;
+import com.poc.cqrs.query.service.OrderCountService;
+import com.poc.cqrs.query.service.OrderReadRouter;
+import com.poc.cqrs.query.service.OrderSummaryCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Formatos aceitos para a defasagem, uso do cache por id dentro do limite
+ * pedido e leitura do fallback JPQL no primário.
+ */
+class OrderSummaryRoutingControllerTest {
+
+    private static final UUID ORDER_ID = UUID.randomUUID();
+    private static final LocalDateTime UPDATED_AT = LocalDateTime.of(2024, 5, 10, 14, 30, 15);
+
+    private OrderReadRouter router;
+    private OrderReadRepository readRepository;
+    private EntityReadService<OrderSummaryView, UUID> viewReadService;
+    private OrderReadRouter.Source source;
+    private PlatformTransactionManager transactionManager;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        source = OrderReadRouter.Source.JPQL;
+        router = mock(OrderReadRouter.class);
+        when(router.route(any(), anyString())).thenAnswer(invocation -> {
+            Duration bound = invocation.getArgument(0);
+            return new OrderReadRouter.Route(source, LocalDateTime.now(),
+                    bound != null ? bound : Duration.ofSeconds(5));
+        });
+        when(router.readModelAsOf()).thenAnswer(invocation -> LocalDateTime.now());
+        when(router.replicaLag()).thenReturn(Duration.ZERO);
+
+        readRepository = mock(OrderReadRepository.class);
+        when(readRepository.findSummaryById(ORDER_ID)).thenReturn(Optional.of(new OrderSummaryJpqlView(
+                ORDER_ID, "Cliente", OrderStatus.PENDING, BigDecimal.ZERO, 1L,
+                new BigDecimal("10.00"), new BigDecimal("10.00"), UPDATED_AT, UPDATED_AT)));
+
+        var view = mock(OrderSummaryView.class);
+        when(view.getOrderId()).thenReturn(ORDER_ID);
+        when(view.getStatus()).thenReturn("PENDING");
+        when(view.getUpdatedAt()).thenReturn(UPDATED_AT);
+        viewReadService = mock(EntityReadService.class);
+        when(viewReadService.findById(ORDER_ID)).thenReturn(view);
+
+        var cache = new OrderSummaryCache(new SimpleMeterRegistry(), router, true, 10, Duration.ofSeconds(5));
+        transactionManager = mock(PlatformTransactionManager.class);
+        var controller = new OrderSummaryRoutingController(router, viewReadService, readRepository,
+                mock(OrderCountService.class), cache, transactionManager);
+
+        ObjectMapper json = new ObjectMapper().registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        mockMvc = MockMvcBuilders.standaloneSetup(controller)
+                .setControllerAdvice(new GlobalExceptionHandler())
+                .setMessageConverters(new MappingJackson2HttpMessageConverter(json))
+                .build();
+    }
+
+    @Test
+    void acceptsBootAndIsoDurations() throws Exception {
+        mockMvc.perform(get("/api/orders/summaries/{id}", ORDER_ID).param("maxStaleness", "500ms"))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/orders/summaries/{id}", ORDER_ID).header("X-Max-Staleness", "2s"))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/orders/summaries/{id}", ORDER_ID).param("maxStaleness", "PT2S"))
+                .andExpect(status().isOk());
+
+        verify(router).route(Duration.ofMillis(500), "getById");
+        verify(router, times(2)).route(Duration.ofSeconds(2), "getById");
+    }
+
+    @Test
+    void rejectsMalformedDuration() throws Exception {
+        mockMvc.perform(get("/api/orders/summaries/{id}", ORDER_ID).param("maxStaleness", "cinco"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/orders/summaries/{id}", ORDER_ID).header("X-Max-Staleness", "5 s"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void boundBelowCacheTtlSkipsTheCache() throws Exception {
+        for (int i = 0; i < 2; i++) {
+            mockMvc.perform(get("/api/orders/summaries/{id}", ORDER_ID).param("maxStaleness", "500ms"))
+                    .andExpect(status().isOk());
+        }
+
+        verify(readRepository, times(2)).findSummaryById(ORDER_ID);
+    }
+
+    @Test
+    void cachedEntryReportsItsOwnAsOf() throws Exception {
+        String loadedAsOf = mockMvc.perform(get("/api/orders/summaries/{id}", ORDER_ID)
+                        .param("maxStaleness", "10s"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("X-Data-As-Of");
+
+        mockMvc.perform(get("/api/orders/summaries/{id}", ORDER_ID).param("maxStaleness", "10s"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Data-As-Of", loadedAsOf));
+        verify(readRepository, times(1)).findSummaryById(ORDER_ID);
+    }
+
+    @Test
+    void directJpqlReadRunsInReadWriteTransaction() throws Exception {
+        mockMvc.perform(get("/api/orders/summaries/{id}", ORDER_ID).param("maxStaleness", "500ms"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Read-Source", "jpql"));
+
+        // Transação de escrita: com o roteamento ligado, a leitura vai ao primário e não à réplica
+        verify(transactionManager).getTransaction(argThat(definition -> !definition.isReadOnly()));
+    }
+
+    @Test
+    void cachedJpqlEntryAccountsForReplicaLag() throws Exception {
+        // A carga do cache usa o repositório read-only, servido por uma réplica 8s atrasada
+        when(router.replicaLag()).thenReturn(Duration.ofSeconds(8));
+
+        for (int i = 0; i < 2; i++) {
+            mockMvc.perform(get("/api/orders/summaries/{id}", ORDER_ID).param("maxStaleness", "10s"))
+                    .andExpect(status().isOk());
+        }
+        mockMvc.perform(get("/api/orders/summaries/{id}", ORDER_ID).param("maxStaleness", "5s"))
+                .andExpect(status().isOk());
+
+        // Uma carga para o cache; o limite de 5s não aceita a entrada e lê direto do primário
+        verify(readRepository, times(2)).findSummaryById(ORDER_ID);
+        verify(transactionManager, times(1)).getTransaction(any());
+    }
+
+    @Test
+    void cachedViewOlderThanTheBoundIsReloaded() throws Exception {
+        source = OrderReadRouter.Source.VIEW;
+        // A entrada foi carregada quando o read model estava um minuto atrasado
+        when(router.readModelAsOf()).thenAnswer(invocation -> LocalDateTime.now().minusMinutes(1));
+
+        for (int i = 0; i < 2; i++) {
+            mockMvc.perform(get("/api/orders/summaries/{id}", ORDER_ID).param("maxStaleness", "10s"))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string("X-Read-Source", "view"));
+        }
+
+        // Uma carga para o cache e uma leitura direta por requisição
+        verify(viewReadService, times(3)).findById(ORDER_ID);
+    }
+}
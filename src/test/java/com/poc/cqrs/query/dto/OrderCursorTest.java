@@ -0,0 +1,43 @@
+package com.poc.cqrs.query.dto;
+
+import net.jqwik.api.Example;
+import net.jqwik.api.ForAll;
+import net.jqwik.api.Property;
+import net.jqwik.api.constraints.LongRange;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class OrderCursorTest {
+
+    @Property
+    void decodeReturnsEncodedPosition(@ForAll @LongRange(min = 0, max = 4_102_444_800L) long epochSecond,
+                                      @ForAll @LongRange(min = 0, max = 999_999_999) long nanos,
+                                      @ForAll long msb, @ForAll long lsb) {
+        var cursor = new OrderCursor(
+                LocalDateTime.ofEpochSecond(epochSecond, (int) nanos, ZoneOffset.UTC), new UUID(msb, lsb));
+
+        String encoded = cursor.encode();
+
+        assertThat(encoded).matches("[A-Za-z0-9_-]+");
+        assertThat(OrderCursor.decode(encoded)).isEqualTo(cursor);
+    }
+
+    @Example
+    void missingCursorMeansFirstPage() {
+        assertThat(OrderCursor.decode(null)).isNull();
+        assertThat(OrderCursor.decode(" ")).isNull();
+    }
+
+    @Example
+    void malformedCursorIsRejected() {
+        assertThatThrownBy(() -> OrderCursor.decode("não-é-base64!"))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> OrderCursor.decode("c2VtLXNlcGFyYWRvcg"))  // "sem-separador"
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,79 @@
+package com.poc.cqrs.query.service;
+
+import com.poc.cqrs.command.service.MaterializedViewRefreshScheduler;
+import com.poc.cqrs.command.service.OrderEventOutbox;
+import com.poc.cqrs.config.ReplicaLagMonitor;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Roteamento com o pool de queries atrasado: o atraso da réplica entra na
+ * defasagem do read model, tanto na decisão quanto no {@code X-Data-As-Of}.
+ */
+class OrderReadRouterTest {
+
+    private static final Duration REPLICA_LAG = Duration.ofSeconds(4);
+
+    private OrderReadRouter router;
+
+    @BeforeEach
+    void setUp() {
+        // Modo incremental: o read model em si não tem atraso, só a réplica
+        var monitor = mock(ReplicaLagMonitor.class);
+        when(monitor.readLag()).thenReturn(REPLICA_LAG);
+        var beans = new StaticListableBeanFactory(Map.of("replicaLagMonitor", monitor));
+        router = new OrderReadRouter(
+                beans.getBeanProvider(OrderEventOutbox.class),
+                beans.getBeanProvider(MaterializedViewRefreshScheduler.class),
+                beans.getBeanProvider(ReplicaLagMonitor.class),
+                new SimpleMeterRegistry(),
+                Duration.ofSeconds(5));
+    }
+
+    @Test
+    void boundBelowReplicaLagFallsBackToJpql() {
+        LocalDateTime before = LocalDateTime.now();
+
+        var route = router.route(Duration.ofSeconds(2), "getById");
+
+        assertThat(route.source()).isEqualTo(OrderReadRouter.Source.JPQL);
+        // O fallback lê do primário: está atualizado no momento da decisão
+        assertThat(route.dataAsOf()).isAfterOrEqualTo(before);
+    }
+
+    @Test
+    void viewAsOfIncludesReplicaLag() {
+        LocalDateTime before = LocalDateTime.now();
+
+        var route = router.route(Duration.ofSeconds(10), "getById");
+
+        assertThat(route.source()).isEqualTo(OrderReadRouter.Source.VIEW);
+        assertThat(route.dataAsOf()).isBeforeOrEqualTo(LocalDateTime.now().minus(REPLICA_LAG));
+        assertThat(route.dataAsOf()).isAfterOrEqualTo(before.minus(REPLICA_LAG));
+        assertThat(router.readModelAsOf()).isBeforeOrEqualTo(LocalDateTime.now().minus(REPLICA_LAG));
+    }
+
+    @Test
+    void withoutRoutingThereIsNoReplicaLag() {
+        var beans = new StaticListableBeanFactory();
+        var primaryOnly = new OrderReadRouter(
+                beans.getBeanProvider(OrderEventOutbox.class),
+                beans.getBeanProvider(MaterializedViewRefreshScheduler.class),
+                beans.getBeanProvider(ReplicaLagMonitor.class),
+                new SimpleMeterRegistry(),
+                Duration.ofSeconds(5));
+
+        assertThat(primaryOnly.replicaLag()).isZero();
+        assertThat(primaryOnly.route(Duration.ZERO, "getById").source()).isEqualTo(OrderReadRouter.Source.VIEW);
+    }
+}
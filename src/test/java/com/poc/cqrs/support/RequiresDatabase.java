@@ -0,0 +1,17 @@
+package com.poc.cqrs.support;
+
+import net.jqwik.api.lifecycle.LifecycleContext;
+import net.jqwik.api.lifecycle.SkipExecutionHook;
+
+/**
+ * Ignora a classe de teste quando não há PostgreSQL disponível (ver {@link TestDatabase}).
+ */
+public class RequiresDatabase implements SkipExecutionHook {
+
+    @Override
+    public SkipResult shouldBeSkipped(LifecycleContext context) {
+        return TestDatabase.available()
+                ? SkipResult.doNotSkip()
+                : SkipResult.skip("Sem PostgreSQL: informe -Dtest.db.url ou disponibilize o Docker");
+    }
+}
@@ -0,0 +1,50 @@
+package com.poc.cqrs.support;
+
+import org.flywaydb.core.Flyway;
+import org.postgresql.ds.PGSimpleDataSource;
+import org.testcontainers.DockerClientFactory;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import javax.sql.DataSource;
+
+/**
+ * PostgreSQL dos testes que executam SQL: o informado em {@code -Dtest.db.url}
+ * (com {@code -Dtest.db.user} e {@code -Dtest.db.password}) ou, sem ele, um
+ * container descartável. As migrations do Flyway são aplicadas uma vez.
+ * Os testes geram ids próprios, então um banco compartilhado serve.
+ */
+public final class TestDatabase {
+
+    private static DataSource dataSource;
+
+    private TestDatabase() {
+    }
+
+    /**
+     * {@code false} sem {@code test.db.url} e sem Docker: os testes devem ser ignorados.
+     */
+    public static boolean available() {
+        return System.getProperty("test.db.url") != null || DockerClientFactory.instance().isDockerAvailable();
+    }
+
+    public static synchronized DataSource dataSource() {
+        if (dataSource == null) {
+            var ds = new PGSimpleDataSource();
+            String url = System.getProperty("test.db.url");
+            if (url != null) {
+                ds.setUrl(url);
+                ds.setUser(System.getProperty("test.db.user", "postgres"));
+                ds.setPassword(System.getProperty("test.db.password", "postgres"));
+            } else {
+                var container = new PostgreSQLContainer<>("postgres:15-alpine");
+                container.start();  // encerrado pelo Testcontainers ao fim da JVM
+                ds.setUrl(container.getJdbcUrl());
+                ds.setUser(container.getUsername());
+                ds.setPassword(container.getPassword());
+            }
+            Flyway.configure().dataSource(ds).locations("classpath:db/migration").load().migrate();
+            dataSource = ds;
+        }
+        return dataSource;
+    }
+}